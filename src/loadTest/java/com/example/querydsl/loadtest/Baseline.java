@@ -0,0 +1,91 @@
+package com.example.querydsl.loadtest;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+
+/**
+ * baseline.properties 읽고 쓰기 + 회귀 판정
+ *
+ * <엔드포인트>.throughput / <엔드포인트>.p99Micros 두 개만 비교한다
+ * 값이 없는 엔드포인트도 실패로 본다 -> 비교 없이 통과하는 일이 없게 (-PloadTest.updateBaseline=true로 채우기)
+ * */
+public class Baseline {
+
+    private final Path path;
+    private final Properties values = new Properties();
+
+    private Baseline(Path path) {
+        this.path = path;
+    }
+
+    public static Baseline load(Path path) throws IOException {
+        Baseline baseline = new Baseline(path);
+        if (Files.exists(path)) {
+            try (Reader reader = Files.newBufferedReader(path)) {
+                baseline.values.load(reader);
+            }
+        }
+        return baseline;
+    }
+
+    /**
+     * @return 회귀한 항목 설명, 없으면 빈 리스트
+     * */
+    public List<String> compare(List<EndpointResult> results, double tolerance) {
+        List<String> regressions = new ArrayList<>();
+        for (EndpointResult result : results) {
+            String throughput = values.getProperty(key(result.endpoint(), "throughput"));
+            String p99 = values.getProperty(key(result.endpoint(), "p99Micros"));
+            if (throughput == null || p99 == null) {
+                regressions.add(result.endpoint() + " has no baseline, run with -PloadTest.updateBaseline=true first");
+                continue;
+            }
+
+            double minThroughput = Double.parseDouble(throughput) * (1 - tolerance);
+            double maxP99 = Long.parseLong(p99) * (1 + tolerance);
+
+            if (result.throughput() < minThroughput) {
+                regressions.add(String.format("%s throughput %.1f/s < %.1f/s",
+                        result.endpoint(), result.throughput(), minThroughput));
+            }
+            if (result.p99Micros() > maxP99) {
+                regressions.add(String.format("%s p99 %dus > %.0fus",
+                        result.endpoint(), result.p99Micros(), maxP99));
+            }
+        }
+        return regressions;
+    }
+
+    /**
+     * 숫자는 머신과 설정에 따라 달라지니까 어디서 어떤 설정으로 잰 값인지 헤더에 같이 남긴다
+     * Properties.store는 주석의 한글을 유니코드 이스케이프로 바꿔 버려서 헤더는 영어로 쓴다
+     * */
+    public void update(List<EndpointResult> results, LoadTestSettings settings) throws IOException {
+        for (EndpointResult result : results) {
+            values.setProperty(key(result.endpoint(), "throughput"), String.format("%.1f", result.throughput()));
+            values.setProperty(key(result.endpoint(), "p99Micros"), Long.toString(result.p99Micros()));
+        }
+        String header = String.join("\n",
+                "generated by ./gradlew loadTest -PloadTest.updateBaseline=true",
+                String.format("machine: %s %s, %d cpus, java %s",
+                        System.getProperty("os.name"), System.getProperty("os.arch"),
+                        Runtime.getRuntime().availableProcessors(), System.getProperty("java.version")),
+                String.format("settings: concurrency=%d teams=%d members=%d warmup=%ds duration=%ds tolerance=%.2f",
+                        settings.concurrency(), settings.teams(), settings.members(),
+                        settings.warmup().toSeconds(), settings.duration().toSeconds(), settings.tolerance()),
+                "numbers only compare on the same machine and settings; regenerate with the same command after changing either");
+        try (Writer writer = Files.newBufferedWriter(path)) {
+            values.store(writer, header);
+        }
+    }
+
+    private static String key(String endpoint, String metric) {
+        return endpoint.replaceFirst("^/", "") + "." + metric;
+    }
+}
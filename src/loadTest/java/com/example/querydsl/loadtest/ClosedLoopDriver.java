@@ -0,0 +1,114 @@
+package com.example.querydsl.loadtest;
+
+import com.example.querydsl.tenant.TenantContext;
+import com.example.querydsl.tenant.TenantFilter;
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 고정된 수의 가상 사용자가 응답을 받자마자 다음 요청을 보내는 closed-loop 부하
+ *
+ * 프로젝트가 Java 17이라 virtual thread 대신 사용자 한 명당 플랫폼 스레드 하나를 쓴다
+ * warmup 동안은 기록하지 않고, 측정 구간의 요청만 histogram에 넣는다
+ * */
+public class ClosedLoopDriver {
+
+    private static final long HIGHEST_TRACKABLE_MICROS = TimeUnit.SECONDS.toMicros(60);
+
+    private final HttpClient client;
+    private final String baseUrl;
+    private final int concurrency;
+
+    public ClosedLoopDriver(String baseUrl, int concurrency) {
+        this.baseUrl = baseUrl;
+        this.concurrency = concurrency;
+        this.client = HttpClient.newBuilder()
+                .connectTimeout(Duration.ofSeconds(5))
+                .build();
+    }
+
+    public EndpointResult run(String endpoint, Duration warmup, Duration duration) throws Exception {
+        HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + endpoint))
+                .timeout(Duration.ofSeconds(30))
+                .header(TenantFilter.TENANT_HEADER, TenantContext.DEFAULT_TENANT)
+                .GET()
+                .build();
+
+        Recorder recorder = new Recorder(HIGHEST_TRACKABLE_MICROS, 3);
+        LongAdder errors = new LongAdder();
+
+        long measureStart = System.nanoTime() + warmup.toNanos();
+        long measureEnd = measureStart + duration.toNanos();
+
+        ExecutorService executor = Executors.newFixedThreadPool(concurrency);
+        try {
+            List<Future<?>> users = new ArrayList<>();
+            for (int i = 0; i < concurrency; i++) {
+                users.add(executor.submit(() -> {
+                    runUser(request, recorder, errors, measureStart, measureEnd);
+                    return null;
+                }));
+            }
+            for (Future<?> user : users) {
+                user.get();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        Histogram histogram = recorder.getIntervalHistogram();
+        double seconds = duration.toNanos() / 1_000_000_000.0;
+        return new EndpointResult(
+                endpoint,
+                histogram.getTotalCount(),
+                errors.sum(),
+                histogram.getTotalCount() / seconds,
+                histogram.getValueAtPercentile(50),
+                histogram.getValueAtPercentile(99),
+                histogram.getValueAtPercentile(99.9),
+                histogram.getMaxValue());
+    }
+
+    private void runUser(HttpRequest request, Recorder recorder, LongAdder errors,
+                         long measureStart, long measureEnd) throws InterruptedException {
+        while (true) {
+            long start = System.nanoTime();
+            if (start >= measureEnd) {
+                return;
+            }
+
+            boolean ok;
+            try {
+                HttpResponse<Void> response = client.send(request, HttpResponse.BodyHandlers.discarding());
+                ok = response.statusCode() / 100 == 2;
+            } catch (IOException e) {
+                ok = false;
+            }
+            long end = System.nanoTime();
+
+            // 측정 구간에서 시작해서 끝난 요청만 센다
+            if (start < measureStart || end > measureEnd) {
+                continue;
+            }
+            if (ok) {
+                recorder.recordValue(Math.min(TimeUnit.NANOSECONDS.toMicros(end - start), HIGHEST_TRACKABLE_MICROS));
+            } else {
+                errors.increment();
+            }
+        }
+    }
+}
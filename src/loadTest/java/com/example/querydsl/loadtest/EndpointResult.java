@@ -0,0 +1,22 @@
+package com.example.querydsl.loadtest;
+
+/**
+ * 엔드포인트 하나의 측정 결과, latency는 전부 마이크로초
+ * */
+public record EndpointResult(
+        String endpoint,
+        long requests,
+        long errors,
+        double throughput,
+        long p50Micros,
+        long p99Micros,
+        long p999Micros,
+        long maxMicros
+) {
+
+    @Override
+    public String toString() {
+        return String.format("%-14s requests=%d errors=%d throughput=%.1f/s p50=%dus p99=%dus p99.9=%dus max=%dus",
+                endpoint, requests, errors, throughput, p50Micros, p99Micros, p999Micros, maxMicros);
+    }
+}
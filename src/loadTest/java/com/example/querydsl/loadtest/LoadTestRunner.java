@@ -0,0 +1,81 @@
+package com.example.querydsl.loadtest;
+
+import com.example.querydsl.QuerydslApplication;
+import jakarta.persistence.EntityManager;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * ./gradlew loadTest
+ *
+ * 1. 앱을 랜덤 포트 + 인메모리 H2로 띄운다 (로컬 H2 서버 없이 돌아감, 끝나면 데이터도 사라짐)
+ * 2. 설정한 모양대로 팀/회원 데이터를 넣는다
+ * 3. 엔드포인트마다 closed-loop 부하를 주고 throughput, latency 분포를 잰다
+ * 4. baseline과 비교해서 허용 범위를 넘게 나빠졌거나 baseline 값이 없으면 exit code 1 -> gradle task 실패
+ * */
+public class LoadTestRunner {
+
+    public static void main(String[] args) throws Exception {
+        LoadTestSettings settings = LoadTestSettings.fromSystemProperties();
+
+        // defaultProperties는 application.yml보다 우선순위가 낮아서 로컬 H2 서버로 붙어 버린다
+        // -> 커맨드라인 인자로 넘겨야 yml을 덮어쓴다
+        String[] applicationArgs = Stream.concat(Stream.of(
+                        "--server.port=0",
+                        "--spring.datasource.url=jdbc:h2:mem:loadtest;DB_CLOSE_DELAY=-1",
+                        "--spring.jpa.hibernate.ddl-auto=create-drop",
+                        "--querydsl.routing.enabled=false"),
+                Stream.of(args))
+                .toArray(String[]::new);
+
+        List<EndpointResult> results = new ArrayList<>();
+        try (ConfigurableApplicationContext context = new SpringApplication(QuerydslApplication.class).run(applicationArgs)) {
+            new LoadTestSeeder(context.getBean(EntityManager.class), context.getBean(TransactionTemplate.class))
+                    .seed(settings.teams(), settings.members());
+
+            int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+            ClosedLoopDriver driver = new ClosedLoopDriver("http://localhost:" + port, settings.concurrency());
+
+            System.out.printf("[loadTest] concurrency=%d teams=%d members=%d warmup=%s duration=%s%n",
+                    settings.concurrency(), settings.teams(), settings.members(),
+                    settings.warmup(), settings.duration());
+
+            for (String endpoint : settings.endpoints()) {
+                EndpointResult result = driver.run(endpoint, settings.warmup(), settings.duration());
+                System.out.println("[loadTest] " + result);
+                results.add(result);
+            }
+        }
+
+        System.exit(evaluate(settings, results));
+    }
+
+    private static int evaluate(LoadTestSettings settings, List<EndpointResult> results) throws Exception {
+        List<String> failures = new ArrayList<>();
+        for (EndpointResult result : results) {
+            if (result.errors() > 0) {
+                failures.add(result.endpoint() + " had " + result.errors() + " failed requests");
+            }
+        }
+
+        Baseline baseline = Baseline.load(settings.baseline());
+        if (settings.updateBaseline()) {
+            baseline.update(results, settings);
+            System.out.println("[loadTest] baseline updated: " + settings.baseline());
+        } else {
+            failures.addAll(baseline.compare(results, settings.tolerance()));
+        }
+
+        if (failures.isEmpty()) {
+            return 0;
+        }
+        failures.forEach(failure -> System.out.println("[loadTest] FAILED " + failure));
+        return 1;
+    }
+}
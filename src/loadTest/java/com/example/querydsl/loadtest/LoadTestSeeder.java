@@ -0,0 +1,46 @@
+package com.example.querydsl.loadtest;
+
+import com.example.querydsl.entity.Member;
+import com.example.querydsl.entity.Team;
+import jakarta.persistence.EntityManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * members명을 teams개 팀에 고르게 나눠서 넣는다
+ * 한 트랜잭션에 다 넣으면 영속성 컨텍스트가 커지니까 batchSize마다 flush, clear
+ * */
+public class LoadTestSeeder {
+
+    private static final int BATCH_SIZE = 500;
+
+    private final EntityManager em;
+    private final TransactionTemplate transactionTemplate;
+
+    public LoadTestSeeder(EntityManager em, TransactionTemplate transactionTemplate) {
+        this.em = em;
+        this.transactionTemplate = transactionTemplate;
+    }
+
+    public void seed(int teams, int members) {
+        transactionTemplate.executeWithoutResult(status -> {
+            Team[] created = new Team[teams];
+            for (int i = 0; i < teams; i++) {
+                created[i] = new Team("team" + i);
+                em.persist(created[i]);
+            }
+
+            for (int i = 0; i < members; i++) {
+                Team team = created[i % teams];
+                em.persist(new Member("member" + i, i % 80, team));
+
+                if ((i + 1) % BATCH_SIZE == 0) {
+                    em.flush();
+                    em.clear();
+                    for (int t = 0; t < teams; t++) {
+                        created[t] = em.getReference(Team.class, created[t].getId());
+                    }
+                }
+            }
+        });
+    }
+}
@@ -0,0 +1,34 @@
+package com.example.querydsl.loadtest;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * 부하 테스트 설정, 전부 -DloadTest.* 시스템 프로퍼티 (gradle에서는 -PloadTest.*)
+ * */
+public record LoadTestSettings(
+        int concurrency,
+        Duration warmup,
+        Duration duration,
+        int teams,
+        int members,
+        List<String> endpoints,
+        Path baseline,
+        double tolerance,
+        boolean updateBaseline
+) {
+
+    public static LoadTestSettings fromSystemProperties() {
+        return new LoadTestSettings(
+                Integer.getInteger("loadTest.concurrency", 32),
+                Duration.ofSeconds(Long.getLong("loadTest.warmupSeconds", 5)),
+                Duration.ofSeconds(Long.getLong("loadTest.durationSeconds", 20)),
+                Integer.getInteger("loadTest.teams", 10),
+                Integer.getInteger("loadTest.members", 2_000),
+                List.of(System.getProperty("loadTest.endpoints", "/hello,/all-members,/all-members2").split(",")),
+                Path.of(System.getProperty("loadTest.baseline", "src/loadTest/resources/baseline.properties")),
+                Double.parseDouble(System.getProperty("loadTest.tolerance", "0.2")),
+                Boolean.getBoolean("loadTest.updateBaseline"));
+    }
+}
@@ -0,0 +1,32 @@
+package com.example.querydsl.concurrency;
+
+import com.example.querydsl.entity.Member;
+import com.example.querydsl.entity.Team;
+import com.example.querydsl.n1.MemberRepository;
+import com.example.querydsl.n1.TeamRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+
+@Service
+@RequiredArgsConstructor
+public class MemberTeamService {
+
+    private final MemberRepository memberRepository;
+    private final TeamRepository teamRepository;
+    private final OptimisticRetryExecutor retryExecutor;
+
+    /**
+     * 회원의 팀을 옮긴다, 다른 요청과 충돌하면 처음부터 다시 읽어서 다시 옮긴다
+     * */
+    public void changeTeam(Long memberId, Long teamId) {
+        retryExecutor.execute(() -> {
+            Member member = memberRepository.findById(memberId)
+                    .orElseThrow(() -> new IllegalArgumentException("member not found: " + memberId));
+            Team team = teamRepository.findById(teamId)
+                    .orElseThrow(() -> new IllegalArgumentException("team not found: " + teamId));
+
+            member.changeTeam(team);
+            return null;
+        });
+    }
+}
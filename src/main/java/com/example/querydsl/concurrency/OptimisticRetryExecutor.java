@@ -0,0 +1,98 @@
+package com.example.querydsl.concurrency;
+
+import jakarta.persistence.OptimisticLockException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * 낙관적 락 충돌이 나면 트랜잭션을 통째로 다시 실행한다
+ *
+ * 1. 시도할 때마다 새 트랜잭션 = 새 영속성 컨텍스트 -> 최신 버전을 다시 읽는다
+ * 2. 다시 시도하기 전에 min(maxBackoff, baseBackoff * 2^n) 안에서 랜덤하게 쉰다 (full jitter)
+ *  -> 충돌한 스레드들이 같은 타이밍에 또 부딪히지 않게 흩어준다
+ * 3. maxAttempts번 다 실패하면 마지막 예외를 그대로 던진다
+ *
+ * 바깥 트랜잭션 안에서 부르면 충돌이 바깥 커밋 시점에 나서 재시도가 의미가 없으니 막아둔다
+ * */
+@Slf4j
+@Component
+public class OptimisticRetryExecutor {
+
+    private final TransactionTemplate transactionTemplate;
+    private final int maxAttempts;
+    private final long baseBackoffNanos;
+    private final long maxBackoffNanos;
+
+    private final LongAdder commits = new LongAdder();
+    private final LongAdder retries = new LongAdder();
+    private final LongAdder failures = new LongAdder();
+
+    public OptimisticRetryExecutor(PlatformTransactionManager transactionManager,
+                                   @Value("${querydsl.retry.max-attempts:5}") int maxAttempts,
+                                   @Value("${querydsl.retry.base-backoff:5ms}") Duration baseBackoff,
+                                   @Value("${querydsl.retry.max-backoff:200ms}") Duration maxBackoff) {
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.maxAttempts = maxAttempts;
+        this.baseBackoffNanos = baseBackoff.toNanos();
+        this.maxBackoffNanos = maxBackoff.toNanos();
+    }
+
+    public <T> T execute(Supplier<T> work) {
+        if (TransactionSynchronizationManager.isActualTransactionActive()) {
+            throw new IllegalStateException("OptimisticRetryExecutor must be called outside a transaction");
+        }
+
+        for (int attempt = 1; ; attempt++) {
+            try {
+                T result = transactionTemplate.execute(status -> work.get());
+                commits.increment();
+                return result;
+            } catch (OptimisticLockingFailureException | OptimisticLockException e) {
+                if (attempt >= maxAttempts) {
+                    failures.increment();
+                    throw e;
+                }
+                retries.increment();
+                log.debug("optimistic lock conflict, retrying (attempt {}/{})", attempt, maxAttempts);
+                backoff(attempt);
+            }
+        }
+    }
+
+    private void backoff(int attempt) {
+        long ceiling = Math.min(maxBackoffNanos, baseBackoffNanos << Math.min(attempt - 1, 30));
+        if (ceiling <= 0) {
+            return;
+        }
+        long sleepNanos = ThreadLocalRandom.current().nextLong(ceiling + 1);
+        try {
+            TimeUnit.NANOSECONDS.sleep(sleepNanos);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("interrupted while backing off", e);
+        }
+    }
+
+    public long commitCount() {
+        return commits.sum();
+    }
+
+    public long retryCount() {
+        return retries.sum();
+    }
+
+    public long failureCount() {
+        return failures.sum();
+    }
+}
@@ -0,0 +1,77 @@
+package com.example.querydsl.config;
+
+import com.example.querydsl.tenant.TenantContext;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * ddl-auto: update는 컬럼을 추가만 하고 기존 row나 컬럼 정의는 건드리지 않는다
+ * 그래서 예전부터 쓰던 로컬 DB(~/querydsl)를 새 매핑에 맞추는 작업을 앱이 뜰 때 한 번 해준다
+ *
+ * 1. member.age_bucket: 일반 컬럼으로 만들어져 있으면 generated column으로 다시 만든다
+ * 2. tenant_id가 null인 member/team: 기본 테넌트로 채운다 (안 채우면 어떤 테넌트 조회에도 안 나온다)
+ * 3. version이 null인 member/team: 0으로 채운다 (null이면 Hibernate가 버전 비교를 못 한다)
+ *  예전에 팀마다 들고 있던 team.member_count는 더 이상 안 쓰니까 지운다
+ *
+ * 이미 맞춰진 DB에서는 조회만 하고 끝난다
+ * 다른 러너나 인덱스 warming(ApplicationReadyEvent)보다 먼저 돈다
+ * */
+@Slf4j
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+@RequiredArgsConstructor
+public class LegacySchemaBackfill implements ApplicationRunner {
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Override
+    public void run(ApplicationArguments args) {
+        generateAgeBucket();
+        backfillTenant();
+        backfillVersion();
+    }
+
+    private void generateAgeBucket() {
+        List<String> generated = jdbcTemplate.queryForList(
+                "select is_generated from information_schema.columns " +
+                        "where table_schema = current_schema and table_name = 'MEMBER' and column_name = 'AGE_BUCKET'",
+                String.class);
+        if (generated.isEmpty() || !"NEVER".equalsIgnoreCase(generated.get(0))) {
+            return;
+        }
+
+        jdbcTemplate.execute("drop index if exists idx_member_tenant_age_bucket");
+        jdbcTemplate.execute("alter table member drop column age_bucket");
+        jdbcTemplate.execute("alter table member add column age_bucket integer generated always as (age / 10 * 10)");
+        jdbcTemplate.execute("create index idx_member_tenant_age_bucket on member (tenant_id, age_bucket)");
+        log.info("member.age_bucket converted to a generated column");
+    }
+
+    private void backfillTenant() {
+        for (String table : List.of("member", "team")) {
+            int updated = jdbcTemplate.update(
+                    "update " + table + " set tenant_id = ? where tenant_id is null", TenantContext.DEFAULT_TENANT);
+            if (updated > 0) {
+                log.info("{} rows of {} assigned to tenant {}", updated, table, TenantContext.DEFAULT_TENANT);
+            }
+        }
+    }
+
+    private void backfillVersion() {
+        for (String table : List.of("member", "team")) {
+            int updated = jdbcTemplate.update("update " + table + " set version = 0 where version is null");
+            if (updated > 0) {
+                log.info("{} rows of {} assigned version 0", updated, table);
+            }
+        }
+        jdbcTemplate.execute("alter table team drop column if exists member_count");
+    }
+}
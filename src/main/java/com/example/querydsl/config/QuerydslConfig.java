@@ -0,0 +1,19 @@
+package com.example.querydsl.config;
+
+import com.querydsl.jpa.impl.JPAQueryFactory;
+import jakarta.persistence.EntityManager;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class QuerydslConfig {
+
+    /**
+     * 주입받는 EntityManager는 트랜잭션마다 실제 세션으로 위임되는 프록시라서 싱글톤으로 써도 된다
+     * 테넌트 조건도 세션 단위로 붙기 때문에 여기서 따로 해줄 건 없음
+     * */
+    @Bean
+    public JPAQueryFactory jpaQueryFactory(EntityManager em) {
+        return new JPAQueryFactory(em);
+    }
+}
@@ -0,0 +1,6 @@
+package com.example.querydsl.datasource;
+
+public enum DataSourceType {
+    PRIMARY,
+    REPLICA
+}
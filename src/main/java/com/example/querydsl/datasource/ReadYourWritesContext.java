@@ -0,0 +1,46 @@
+package com.example.querydsl.datasource;
+
+/**
+ * 쓰기 직후의 읽기는 replica 복제가 아직 안 끝났을 수 있어서 primary로 보내야 한다
+ *
+ * 1. 요청 안: 한 번이라도 쓰기 트랜잭션이 있었으면 그 요청이 끝날 때까지 primary (ReadYourWritesFilter가 시작/정리)
+ * 2. 요청 밖(배치, 테스트 스레드 등): 정리해줄 곳이 없으니 쓰기 후 replica 지연 시간(max-replica-lag)이 지나면 풀린다
+ * */
+public final class ReadYourWritesContext {
+
+    private static final ThreadLocal<Boolean> IN_REQUEST = new ThreadLocal<>();
+    private static final ThreadLocal<Long> LAST_WRITE_NANOS = new ThreadLocal<>();
+
+    private ReadYourWritesContext() {
+    }
+
+    static void beginRequest() {
+        LAST_WRITE_NANOS.remove();
+        IN_REQUEST.set(Boolean.TRUE);
+    }
+
+    static void endRequest() {
+        LAST_WRITE_NANOS.remove();
+        IN_REQUEST.remove();
+    }
+
+    public static void markWrite() {
+        LAST_WRITE_NANOS.set(System.nanoTime());
+    }
+
+    public static boolean isSticky(long maxReplicaLagNanos) {
+        Long lastWrite = LAST_WRITE_NANOS.get();
+        if (lastWrite == null) {
+            return false;
+        }
+        if (IN_REQUEST.get() != null || System.nanoTime() - lastWrite < maxReplicaLagNanos) {
+            return true;
+        }
+        LAST_WRITE_NANOS.remove();
+        return false;
+    }
+
+    public static void clear() {
+        LAST_WRITE_NANOS.remove();
+    }
+}
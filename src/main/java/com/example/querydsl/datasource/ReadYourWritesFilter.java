@@ -0,0 +1,28 @@
+package com.example.querydsl.datasource;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+/**
+ * 요청이 끝나면 "쓰기 했음" 표시를 지운다 -> 다음 요청은 다시 replica부터
+ * 톰캣 스레드는 재사용되니까 안 지우면 다음 요청까지 primary로 끌려간다
+ * */
+public class ReadYourWritesFilter extends OncePerRequestFilter {
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request,
+                                    HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+        ReadYourWritesContext.beginRequest();
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            ReadYourWritesContext.endRequest();
+        }
+    }
+}
@@ -0,0 +1,45 @@
+package com.example.querydsl.datasource;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * readOnly 트랜잭션(@Transactional(readOnly = true))이면 replica, 나머지는 primary
+ *
+ * 트랜잭션 매니저가 readOnly 플래그를 세팅하기 전에 커넥션을 가져가 버리면 항상 primary로 가기 때문에
+ * 반드시 LazyConnectionDataSourceProxy로 감싸서 실제 쿼리가 나갈 때 결정되게 해야 한다
+ * */
+public class ReplicationRoutingDataSource extends AbstractRoutingDataSource {
+
+    private final long maxReplicaLagNanos;
+    private final RoutingDataSourceMetrics metrics;
+
+    public ReplicationRoutingDataSource(long maxReplicaLagNanos, RoutingDataSourceMetrics metrics) {
+        this.maxReplicaLagNanos = maxReplicaLagNanos;
+        this.metrics = metrics;
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        DataSourceType type = route();
+        metrics.recordRoute(type);
+        return type;
+    }
+
+    private DataSourceType route() {
+        boolean inTransaction = TransactionSynchronizationManager.isActualTransactionActive();
+        boolean readOnly = TransactionSynchronizationManager.isCurrentTransactionReadOnly();
+
+        if (inTransaction && !readOnly) {
+            ReadYourWritesContext.markWrite();
+            return DataSourceType.PRIMARY;
+        }
+        if (readOnly && !ReadYourWritesContext.isSticky(maxReplicaLagNanos)) {
+            return DataSourceType.REPLICA;
+        }
+        if (readOnly) {
+            metrics.recordStickyRead();
+        }
+        return DataSourceType.PRIMARY;
+    }
+}
@@ -0,0 +1,87 @@
+package com.example.querydsl.datasource;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.resource.jdbc.spi.PhysicalConnectionHandlingMode;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.Map;
+
+/**
+ * querydsl.routing.enabled=true일 때만 spring.datasource 대신 primary/replica 두 개의 풀을 쓴다
+ *
+ * querydsl.routing.primary.* / querydsl.routing.replica.* 는 HikariDataSource 프로퍼티 그대로 (jdbc-url, username, ...)
+ * querydsl.routing.max-replica-lag: 요청 밖에서 쓰기 후 얼마 동안 primary로 읽을지 (요청 안에서는 요청이 끝날 때까지)
+ *
+ * routing 프로필로 켜야 한다: 이 dataSource 빈은 p6spy로 감싸면 안 된다 (decorator.datasource.exclude-beans)
+ * -> 감싸면 트랜잭션이 readOnly로 표시되기 전에 실제 커넥션을 잡아서 모든 요청이 primary로 간다
+ * */
+@Configuration
+@ConditionalOnProperty(prefix = "querydsl.routing", name = "enabled", havingValue = "true")
+public class RoutingDataSourceConfig {
+
+    @Bean
+    @ConfigurationProperties("querydsl.routing.primary")
+    public HikariDataSource primaryDataSource() {
+        return DataSourceBuilder.create().type(HikariDataSource.class).build();
+    }
+
+    @Bean
+    @ConfigurationProperties("querydsl.routing.replica")
+    public HikariDataSource replicaDataSource() {
+        HikariDataSource replica = DataSourceBuilder.create().type(HikariDataSource.class).build();
+        replica.setReadOnly(true);
+        return replica;
+    }
+
+    @Bean
+    public RoutingDataSourceMetrics routingDataSourceMetrics() {
+        return new RoutingDataSourceMetrics();
+    }
+
+    /**
+     * open-in-view면 Hibernate 세션이 요청 끝까지 살아 있고, 기본 설정은 세션이 커넥션을 닫힐 때까지 들고 있는다
+     * -> 요청에서 처음 잡은 커넥션(replica일 수도 있음)으로 뒤의 쓰기까지 나가 버린다
+     * 트랜잭션이 끝날 때마다 커넥션을 돌려주게 해서 트랜잭션마다 다시 라우팅되게 한다
+     * */
+    @Bean
+    public HibernatePropertiesCustomizer releaseConnectionAfterTransaction() {
+        return hibernateProperties -> hibernateProperties.put(AvailableSettings.CONNECTION_HANDLING,
+                PhysicalConnectionHandlingMode.DELAYED_ACQUISITION_AND_RELEASE_AFTER_TRANSACTION);
+    }
+
+    @Bean
+    public ReadYourWritesFilter readYourWritesFilter() {
+        return new ReadYourWritesFilter();
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(@Qualifier("primaryDataSource") DataSource primary,
+                                 @Qualifier("replicaDataSource") DataSource replica,
+                                 RoutingDataSourceMetrics metrics,
+                                 @Value("${querydsl.routing.max-replica-lag:1s}") Duration maxReplicaLag) {
+        metrics.register(DataSourceType.PRIMARY, primary);
+        metrics.register(DataSourceType.REPLICA, replica);
+
+        ReplicationRoutingDataSource routing = new ReplicationRoutingDataSource(maxReplicaLag.toNanos(), metrics);
+        routing.setTargetDataSources(Map.of(
+                DataSourceType.PRIMARY, primary,
+                DataSourceType.REPLICA, replica));
+        routing.setDefaultTargetDataSource(primary);
+        routing.afterPropertiesSet();
+
+        return new LazyConnectionDataSourceProxy(routing);
+    }
+}
@@ -0,0 +1,21 @@
+package com.example.querydsl.datasource;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.Map;
+
+@RestController
+@RequiredArgsConstructor
+@ConditionalOnProperty(prefix = "querydsl.routing", name = "enabled", havingValue = "true")
+public class RoutingDataSourceController {
+
+    private final RoutingDataSourceMetrics metrics;
+
+    @GetMapping("/datasource/metrics")
+    public Map<String, Object> metrics() {
+        return metrics.snapshot();
+    }
+}
@@ -0,0 +1,85 @@
+package com.example.querydsl.datasource;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+
+import javax.sql.DataSource;
+import java.sql.SQLException;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 풀마다 몇 번 라우팅됐는지 + Hikari 풀 상태
+ * 쓰기 직후라서 replica 대신 primary로 간 읽기는 stickyReads로 따로 센다
+ * */
+public class RoutingDataSourceMetrics {
+
+    private final Map<DataSourceType, LongAdder> routed = new EnumMap<>(DataSourceType.class);
+    private final LongAdder stickyReads = new LongAdder();
+    private final Map<DataSourceType, DataSource> pools = new EnumMap<>(DataSourceType.class);
+
+    public RoutingDataSourceMetrics() {
+        for (DataSourceType type : DataSourceType.values()) {
+            routed.put(type, new LongAdder());
+        }
+    }
+
+    void register(DataSourceType type, DataSource dataSource) {
+        pools.put(type, dataSource);
+    }
+
+    void recordRoute(DataSourceType type) {
+        routed.get(type).increment();
+    }
+
+    void recordStickyRead() {
+        stickyReads.increment();
+    }
+
+    public long routedCount(DataSourceType type) {
+        return routed.get(type).sum();
+    }
+
+    public long stickyReadCount() {
+        return stickyReads.sum();
+    }
+
+    public Map<String, Object> snapshot() {
+        Map<String, Object> result = new LinkedHashMap<>();
+        for (DataSourceType type : DataSourceType.values()) {
+            Map<String, Object> pool = new LinkedHashMap<>();
+            pool.put("routed", routedCount(type));
+
+            HikariPoolMXBean mxBean = poolMXBean(pools.get(type));
+            if (mxBean != null) {
+                pool.put("active", mxBean.getActiveConnections());
+                pool.put("idle", mxBean.getIdleConnections());
+                pool.put("total", mxBean.getTotalConnections());
+                pool.put("waiting", mxBean.getThreadsAwaitingConnection());
+            }
+            result.put(type.name().toLowerCase(), pool);
+        }
+        result.put("stickyReads", stickyReadCount());
+        return result;
+    }
+
+    /**
+     * p6spy 데코레이터가 DataSource를 감싸고 있을 수 있어서 unwrap으로 꺼낸다
+     * 아직 첫 커넥션을 안 만들었으면 풀 자체가 없다 -> null
+     * */
+    private HikariPoolMXBean poolMXBean(DataSource dataSource) {
+        if (dataSource == null) {
+            return null;
+        }
+        try {
+            if (!dataSource.isWrapperFor(HikariDataSource.class)) {
+                return null;
+            }
+            return dataSource.unwrap(HikariDataSource.class).getHikariPoolMXBean();
+        } catch (SQLException e) {
+            return null;
+        }
+    }
+}
@@ -1,26 +1,75 @@
 package com.example.querydsl.entity;
 
+import com.example.querydsl.search.MemberSearchListener;
+import com.example.querydsl.tenant.TenantContext;
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.ColumnDefault;
+import org.hibernate.annotations.GeneratedColumn;
+import org.hibernate.annotations.TenantId;
 
 @Entity
+@EntityListeners(MemberSearchListener.class)
 @Getter
 @NoArgsConstructor(access = AccessLevel.PROTECTED)
 @Setter
 @ToString(of = {"id","username","age"})
+@Table(indexes = {
+        @Index(name = "idx_member_tenant_username", columnList = "tenant_id, username"),
+        @Index(name = "idx_member_tenant_age_bucket", columnList = "tenant_id, age_bucket")
+})
 public class Member {
 
     @Id
     @GeneratedValue
     private Long id;
 
+    /**
+     * Hibernate가 저장할 때 현재 테넌트로 채우고, 조회할 때마다 tenant_id = ? 조건을 붙여준다
+     * 인덱스도 전부 tenant_id로 시작해야 다른 테넌트 데이터를 안 건드리고 끝난다
+     * 컬럼 추가 전에 있던 row는 기본 테넌트로 채운다 (컬럼 default + LegacySchemaBackfill)
+     * */
+    @TenantId
+    @Column(name = "tenant_id", updatable = false)
+    @ColumnDefault("'" + TenantContext.DEFAULT_TENANT + "'")
+    @Setter(AccessLevel.NONE)
+    private String tenantId;
+
     private String username;
 
     private int age;
+
+    /**
+     * 나이대 (0, 10, 20, ...)
+     * CASE문으로 매번 계산하지 않고 DB generated column으로 두고 인덱스를 건다
+     * -> 나이대별 집계, 필터가 인덱스만 보고 끝남
+     * -> DB가 age로 계산하니까 예전 row, 벌크 update로 바뀐 나이도 항상 맞는다
+     * 저장/수정 후에는 Hibernate가 계산된 값을 다시 읽어온다
+     *
+     * 예전에 일반 컬럼으로 만들어진 DB는 LegacySchemaBackfill이 generated column으로 바꿔준다
+     * */
+    @Column(name = "age_bucket")
+    @GeneratedColumn("age / 10 * 10")
+    @Setter(AccessLevel.NONE)
+    private Integer ageBucket;
     
+    /**
+     * 팀의 members 컬렉션과 같이 바꿔야 해서 changeTeam으로만 바꾼다
+     * */
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "team_id")
+    @Setter(AccessLevel.NONE)
     private Team team;
+
+    /**
+     * 같은 회원을 동시에 수정하면 늦게 커밋하는 쪽이 OptimisticLockException
+     * -> 비관적 락처럼 줄 세우지 않고, 충돌난 쪽만 OptimisticRetryExecutor로 다시 시도한다
+     * 컬럼 추가 전에 있던 row는 0으로 채운다 (컬럼 default + LegacySchemaBackfill)
+     * */
+    @Version
+    @ColumnDefault("0")
+    @Setter(AccessLevel.NONE)
+    private Long version;
     
     public Member(String username, int age,Team team) {
         this.username = username;
@@ -38,8 +87,22 @@ public class Member {
         this(username, 0);
     }
 
-    private void changeTeam(Team team) {
+    /**
+     * age_bucket 컬럼과 같은 계산, 조건 값을 만들 때 쓴다
+     * */
+    public static int ageBucketOf(int age) {
+        return age / 10 * 10;
+    }
+
+    /**
+     * 연관관계 편의 메서드: 양쪽을 같이 바꿔준다
+     * 예전 팀에서 빼고 새 팀에 넣는다, 팀의 members 컬렉션을 통째로 불러오지는 않는다 (Team.removeMember)
+     * */
+    public void changeTeam(Team team) {
+        if (this.team != null) {
+            this.team.removeMember(this);
+        }
         this.team = team;
-        team.getMembers().add(this);
+        team.addMember(this);
     }
 }
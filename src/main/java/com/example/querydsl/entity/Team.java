@@ -1,10 +1,18 @@
 package com.example.querydsl.entity;
 
+import com.example.querydsl.tenant.TenantContext;
+import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.OneToMany;
+import jakarta.persistence.Table;
+import jakarta.persistence.Version;
 import lombok.*;
+import org.hibernate.Hibernate;
+import org.hibernate.annotations.ColumnDefault;
+import org.hibernate.annotations.TenantId;
 
 import java.util.ArrayList;
 import java.util.List;
@@ -14,18 +22,52 @@ import java.util.List;
 @Setter
 @NoArgsConstructor(access = AccessLevel.PROTECTED)
 @ToString(of = {"id","name"})
+@Table(indexes = @Index(name = "idx_team_tenant_name", columnList = "tenant_id, name"))
 public class Team {
 
     @Id
     @GeneratedValue
     private Long id;
 
+    @TenantId
+    @Column(name = "tenant_id", updatable = false)
+    @ColumnDefault("'" + TenantContext.DEFAULT_TENANT + "'")
+    @Setter(AccessLevel.NONE)
+    private String tenantId;
+
     private String name;
 
     @OneToMany(mappedBy = "team")
     List<Member> members = new ArrayList<>();
 
+    /**
+     * 팀 이름이 바뀔 때만 올라간다, 회원이 들어오고 나가는 건 member.team_id만 바꾸니까 팀 row는 건드리지 않는다
+     * -> 여러 요청이 같은 팀으로 회원을 옮겨도 팀 row에서 줄 서거나 충돌하지 않는다
+     * 컬럼 추가 전에 있던 row는 0으로 채운다 (컬럼 default + LegacySchemaBackfill)
+     * */
+    @Version
+    @ColumnDefault("0")
+    @Setter(AccessLevel.NONE)
+    private Long version;
+
     public Team(String name) {
         this.name = name;
     }
+
+    /**
+     * members는 mappedBy 쪽 지연 로딩 컬렉션이라 아직 안 불러왔으면 add는 로딩 없이 쌓아두기만 한다
+     * */
+    void addMember(Member member) {
+        members.add(member);
+    }
+
+    /**
+     * remove는 컬렉션을 전부 불러와야 해서 (팀 크기만큼 비용) 이미 불러온 경우에만 메모리에서 빼준다
+     * 안 불러왔으면 나중에 DB에서 읽을 때 이미 빠져 있으니 건드릴 필요가 없다
+     * */
+    void removeMember(Member member) {
+        if (Hibernate.isInitialized(members)) {
+            members.remove(member);
+        }
+    }
 }
@@ -3,12 +3,19 @@ package com.example.querydsl.n1;
 import com.example.querydsl.entity.Member;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
 
+/**
+ * 직접 선언한 조회 메서드는 SimpleJpaRepository의 readOnly 설정을 물려받지 않는다
+ * -> readOnly를 붙여야 routing 프로필에서 replica로 간다
+ * */
 public interface MemberRepository extends JpaRepository<Member, Long> {
+    @Transactional(readOnly = true)
     Member findByUsername(String username);
 
+    @Transactional(readOnly = true)
     @Query("select m from Member m join fetch m.team")
     List<Member> findAllWithTeam();
 }
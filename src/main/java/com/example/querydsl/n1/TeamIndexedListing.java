@@ -0,0 +1,82 @@
+package com.example.querydsl.n1;
+
+import com.example.querydsl.entity.Member;
+import com.example.querydsl.entity.Team;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 회원 목록을 팀 이름 중복 없이 내려주는 형식
+ *
+ * {"teams":[[1,"teamA"],[2,"teamB"]],"members":[["member1",0],["member2",0],["member3",1]]}
+ *
+ * 팀 이름은 teams에 한 번만 나오고 회원은 teams 배열의 인덱스로 팀을 가리킨다
+ * 팀이 없는 회원은 인덱스 대신 null
+ * */
+@JsonSerialize(using = TeamIndexedListingSerializer.class)
+public class TeamIndexedListing {
+
+    public static final String MEDIA_TYPE = "application/vnd.querydsl.team-indexed+json";
+
+    static final int NO_TEAM = -1;
+
+    final long[] teamIds;
+    final String[] teamNames;
+    final int teamCount;
+
+    final String[] memberNames;
+    final int[] memberTeamIndexes;
+
+    private TeamIndexedListing(long[] teamIds, String[] teamNames, int teamCount,
+                               String[] memberNames, int[] memberTeamIndexes) {
+        this.teamIds = teamIds;
+        this.teamNames = teamNames;
+        this.teamCount = teamCount;
+        this.memberNames = memberNames;
+        this.memberTeamIndexes = memberTeamIndexes;
+    }
+
+    /**
+     * team이 fetch join 돼 있어야 한다 (findAllWithTeam) -> 아니면 팀마다 쿼리가 나감
+     * */
+    public static TeamIndexedListing from(List<Member> members) {
+        int size = members.size();
+        String[] memberNames = new String[size];
+        int[] memberTeamIndexes = new int[size];
+
+        Map<Long, Integer> teamIndexById = new HashMap<>();
+        long[] teamIds = new long[Math.min(size, 16)];
+        String[] teamNames = new String[teamIds.length];
+        int teamCount = 0;
+
+        for (int i = 0; i < size; i++) {
+            Member member = members.get(i);
+            memberNames[i] = member.getUsername();
+
+            Team team = member.getTeam();
+            if (team == null) {
+                memberTeamIndexes[i] = NO_TEAM;
+                continue;
+            }
+
+            Integer index = teamIndexById.get(team.getId());
+            if (index == null) {
+                if (teamCount == teamIds.length) {
+                    teamIds = Arrays.copyOf(teamIds, teamCount * 2);
+                    teamNames = Arrays.copyOf(teamNames, teamCount * 2);
+                }
+                index = teamCount++;
+                teamIds[index] = team.getId();
+                teamNames[index] = team.getName();
+                teamIndexById.put(team.getId(), index);
+            }
+            memberTeamIndexes[i] = index;
+        }
+
+        return new TeamIndexedListing(teamIds, teamNames, teamCount, memberNames, memberTeamIndexes);
+    }
+}
@@ -0,0 +1,51 @@
+package com.example.querydsl.n1;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.SerializableString;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+
+import java.io.IOException;
+
+public class TeamIndexedListingSerializer extends StdSerializer<TeamIndexedListing> {
+
+    private static final SerializableString TEAMS = new SerializedString("teams");
+    private static final SerializableString MEMBERS = new SerializedString("members");
+
+    public TeamIndexedListingSerializer() {
+        super(TeamIndexedListing.class);
+    }
+
+    @Override
+    public void serialize(TeamIndexedListing value, JsonGenerator gen, SerializerProvider provider) throws IOException {
+        gen.writeStartObject();
+
+        gen.writeFieldName(TEAMS);
+        gen.writeStartArray();
+        for (int i = 0; i < value.teamCount; i++) {
+            gen.writeStartArray();
+            gen.writeNumber(value.teamIds[i]);
+            gen.writeString(value.teamNames[i]);
+            gen.writeEndArray();
+        }
+        gen.writeEndArray();
+
+        gen.writeFieldName(MEMBERS);
+        gen.writeStartArray();
+        for (int i = 0; i < value.memberNames.length; i++) {
+            gen.writeStartArray();
+            gen.writeString(value.memberNames[i]);
+            int teamIndex = value.memberTeamIndexes[i];
+            if (teamIndex == TeamIndexedListing.NO_TEAM) {
+                gen.writeNull();
+            } else {
+                gen.writeNumber(teamIndex);
+            }
+            gen.writeEndArray();
+        }
+        gen.writeEndArray();
+
+        gen.writeEndObject();
+    }
+}
@@ -40,4 +40,13 @@ public class TestController {
                 .collect(Collectors.toList());
     }
 
+    /**
+     * Accept: application/vnd.querydsl.team-indexed+json 으로 요청하면 팀 이름을 한 번씩만 내려준다
+     * 그냥 application/json이면 위의 기존 형식 그대로
+     * */
+    @GetMapping(value = "/all-members2", produces = TeamIndexedListing.MEDIA_TYPE)
+    public TeamIndexedListing getAllMembers2TeamIndexed() {
+        return TeamIndexedListing.from(memberRepository.findAllWithTeam());
+    }
+
 }
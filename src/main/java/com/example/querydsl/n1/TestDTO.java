@@ -1,5 +1,6 @@
 package com.example.querydsl.n1;
 
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
@@ -9,6 +10,7 @@ import lombok.NoArgsConstructor;
 @NoArgsConstructor
 @AllArgsConstructor
 @Builder
+@JsonSerialize(using = TestDTOSerializer.class)
 public class TestDTO {
 
     String memberName;
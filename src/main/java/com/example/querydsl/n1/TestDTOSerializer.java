@@ -0,0 +1,34 @@
+package com.example.querydsl.n1;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.SerializableString;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+
+import java.io.IOException;
+
+/**
+ * TestDTO 전용 직렬화
+ * 필드 두 개짜리라 리플렉션으로 getter를 찾을 필요 없이 직접 쓴다
+ * 필드 이름도 미리 인코딩해두고 재사용 -> 출력 형식은 기본 직렬화와 똑같다
+ * */
+public class TestDTOSerializer extends StdSerializer<TestDTO> {
+
+    private static final SerializableString MEMBER_NAME = new SerializedString("memberName");
+    private static final SerializableString TEAM_NAME = new SerializedString("teamName");
+
+    public TestDTOSerializer() {
+        super(TestDTO.class);
+    }
+
+    @Override
+    public void serialize(TestDTO value, JsonGenerator gen, SerializerProvider provider) throws IOException {
+        gen.writeStartObject();
+        gen.writeFieldName(MEMBER_NAME);
+        gen.writeString(value.getMemberName());
+        gen.writeFieldName(TEAM_NAME);
+        gen.writeString(value.getTeamName());
+        gen.writeEndObject();
+    }
+}
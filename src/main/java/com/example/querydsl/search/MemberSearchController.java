@@ -0,0 +1,26 @@
+package com.example.querydsl.search;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+@RestController
+@RequiredArgsConstructor
+public class MemberSearchController {
+
+    private final MemberSearchService memberSearchService;
+
+    /**
+     * /members/search?q=mem            -> username에 mem이 들어간 회원
+     * /members/search?q=mem&prefix=true -> username이 mem으로 시작하는 회원
+     * */
+    @GetMapping("/members/search")
+    public List<MemberSearchHit> search(@RequestParam("q") String query,
+                                        @RequestParam(defaultValue = "false") boolean prefix,
+                                        @RequestParam(defaultValue = "20") int limit) {
+        return memberSearchService.search(query, prefix, Math.min(limit, 100));
+    }
+}
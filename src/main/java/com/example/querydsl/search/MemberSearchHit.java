@@ -0,0 +1,4 @@
+package com.example.querydsl.search;
+
+public record MemberSearchHit(Long memberId, String username) {
+}
@@ -0,0 +1,60 @@
+package com.example.querydsl.search;
+
+import com.example.querydsl.entity.Member;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Member 엔티티 리스너: 저장/수정/삭제를 username 인덱스에 반영한다
+ *
+ * Spring Boot가 Hibernate에 SpringBeanContainer를 넣어주기 때문에 빈으로 만들어진다
+ * EntityManagerFactory가 만들어질 때 같이 생성되니까 MemberSearchService는 ObjectProvider로 나중에 꺼낸다 (순환 참조 방지)
+ * 롤백된 변경이 인덱스에 남지 않게 트랜잭션 안이면 커밋된 뒤에 반영한다
+ *
+ * JPQL/Querydsl 벌크 update, delete (queryFactory.update(member), em.createQuery("delete ...").executeUpdate())와
+ * 네이티브 SQL은 엔티티를 거치지 않아서 여기로 안 들어온다
+ * -> 벌크로 username을 바꾸거나 회원을 지웠으면 MemberSearchService.invalidate(tenantId)를 같이 불러야 한다
+ * */
+@Component
+public class MemberSearchListener {
+
+    private final ObjectProvider<MemberSearchService> searchService;
+
+    public MemberSearchListener(ObjectProvider<MemberSearchService> searchService) {
+        this.searchService = searchService;
+    }
+
+    @PostPersist
+    @PostUpdate
+    public void onSave(Member member) {
+        String tenantId = member.getTenantId();
+        Long memberId = member.getId();
+        String username = member.getUsername();
+        afterCommit(() -> searchService.ifAvailable(service -> service.onSaved(tenantId, memberId, username)));
+    }
+
+    @PostRemove
+    public void onRemove(Member member) {
+        String tenantId = member.getTenantId();
+        Long memberId = member.getId();
+        afterCommit(() -> searchService.ifAvailable(service -> service.onRemoved(tenantId, memberId)));
+    }
+
+    static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+}
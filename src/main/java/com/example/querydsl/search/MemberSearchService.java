@@ -0,0 +1,201 @@
+package com.example.querydsl.search;
+
+import com.example.querydsl.tenant.TenantContext;
+import com.example.querydsl.tenant.TenantProperties;
+import com.querydsl.core.Tuple;
+import com.querydsl.core.types.Projections;
+import com.querydsl.jpa.impl.JPAQueryFactory;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Stream;
+
+import static com.example.querydsl.entity.QMember.member;
+
+/**
+ * 테넌트마다 UsernameIndex를 하나씩 들고 검색한다
+ *
+ * 1. 앱이 뜨면 기본 테넌트부터 Querydsl stream으로 전체 username을 훑어서 채운다
+ * 2. 다른 테넌트는 처음 검색이 들어왔을 때 백그라운드로 채우기 시작한다
+ *  -> querydsl.tenant.allowed에 있는 테넌트만, 최대 querydsl.search.max-tenant-indexes개까지
+ *  -> 넘치면 가장 오래 안 쓴 테넌트 인덱스를 버린다 (다시 검색되면 처음부터 채운다)
+ * 3. 다 채워지기 전(warming)이거나 인덱스를 만들지 않는 테넌트는 DB like 쿼리로 대신 응답한다
+ *  -> 인덱스와 DB 둘 다 memberId 순서로 돌려준다
+ * 4. 채우는 중에도 MemberSearchListener가 보내는 변경은 바로 반영한다
+ *  -> 스캔 결과는 putIfAbsent로만 넣고, 그 사이 삭제된 회원은 다시 넣지 않는다
+ * 5. 벌크 update/delete는 리스너를 안 거치니까 invalidate로 인덱스를 버리고 다음 검색 때 다시 채운다
+ * */
+@Slf4j
+@Service
+public class MemberSearchService {
+
+    private final JPAQueryFactory queryFactory;
+    private final TransactionTemplate readOnlyTransaction;
+    private final TaskExecutor taskExecutor;
+    private final TenantProperties tenantProperties;
+    private final int maxTenantIndexes;
+
+    private final Map<String, TenantIndex> indexes = new ConcurrentHashMap<>();
+
+    public MemberSearchService(JPAQueryFactory queryFactory,
+                               PlatformTransactionManager transactionManager,
+                               TaskExecutor taskExecutor,
+                               TenantProperties tenantProperties,
+                               @Value("${querydsl.search.max-tenant-indexes:16}") int maxTenantIndexes) {
+        this.queryFactory = queryFactory;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.taskExecutor = taskExecutor;
+        this.tenantProperties = tenantProperties;
+        this.maxTenantIndexes = maxTenantIndexes;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmDefaultTenant() {
+        indexFor(TenantContext.DEFAULT_TENANT);
+    }
+
+    public List<MemberSearchHit> search(String query, boolean prefix, int limit) {
+        TenantIndex tenantIndex = indexFor(TenantContext.get());
+        if (tenantIndex != null && tenantIndex.ready) {
+            return prefix
+                    ? tenantIndex.index.prefix(query, limit)
+                    : tenantIndex.index.substring(query, limit);
+        }
+        return searchDatabase(query, prefix, limit);
+    }
+
+    void onSaved(String tenantId, Long memberId, String username) {
+        TenantIndex tenantIndex = indexes.get(tenantId);
+        if (tenantIndex != null) {
+            tenantIndex.index.put(memberId, username);
+        }
+    }
+
+    void onRemoved(String tenantId, Long memberId) {
+        TenantIndex tenantIndex = indexes.get(tenantId);
+        if (tenantIndex != null) {
+            if (!tenantIndex.ready) {
+                tenantIndex.removedWhileWarming.add(memberId);
+            }
+            tenantIndex.index.remove(memberId);
+        }
+    }
+
+    /**
+     * 테넌트 인덱스를 버린다, 다음 검색부터 DB로 응답하면서 처음부터 다시 채운다
+     * 리스너를 거치지 않는 벌크 update/delete나 네이티브 SQL로 회원을 바꾼 뒤에 부른다
+     * 트랜잭션 안이면 커밋된 뒤에 버린다 -> 커밋 전에 다시 채우면 바뀌기 전 데이터가 들어가기 때문
+     * */
+    public void invalidate(String tenantId) {
+        MemberSearchListener.afterCommit(() -> {
+            if (indexes.remove(tenantId) != null) {
+                log.info("username index invalidated: tenant={}", tenantId);
+            }
+        });
+    }
+
+    boolean hasIndex(String tenantId) {
+        return indexes.containsKey(tenantId);
+    }
+
+    /**
+     * 모르는 테넌트면 null -> 인덱스 없이 DB로 검색
+     * */
+    private TenantIndex indexFor(String tenantId) {
+        if (!tenantProperties.isKnown(tenantId)) {
+            return null;
+        }
+        TenantIndex existing = indexes.get(tenantId);
+        if (existing != null) {
+            existing.lastUsedNanos = System.nanoTime();
+            return existing;
+        }
+        TenantIndex created = new TenantIndex();
+        TenantIndex raced = indexes.putIfAbsent(tenantId, created);
+        if (raced != null) {
+            return raced;
+        }
+        evictLeastRecentlyUsed(tenantId);
+        taskExecutor.execute(() -> build(tenantId, created));
+        return created;
+    }
+
+    private void evictLeastRecentlyUsed(String keep) {
+        while (indexes.size() > maxTenantIndexes) {
+            Map.Entry<String, TenantIndex> oldest = indexes.entrySet().stream()
+                    .filter(entry -> !entry.getKey().equals(keep))
+                    .min(Comparator.comparingLong(entry -> entry.getValue().lastUsedNanos))
+                    .orElse(null);
+            if (oldest == null) {
+                return;
+            }
+            if (indexes.remove(oldest.getKey(), oldest.getValue())) {
+                log.info("username index evicted: tenant={}", oldest.getKey());
+            }
+        }
+    }
+
+    private void build(String tenantId, TenantIndex tenantIndex) {
+        long start = System.nanoTime();
+        TenantContext.set(tenantId);
+        try {
+            readOnlyTransaction.executeWithoutResult(status -> {
+                try (Stream<Tuple> rows = queryFactory
+                        .select(member.id, member.username)
+                        .from(member)
+                        .orderBy(member.id.asc())
+                        .stream()) {
+                    rows.forEach(row -> {
+                        Long memberId = row.get(member.id);
+                        if (!tenantIndex.removedWhileWarming.contains(memberId)) {
+                            tenantIndex.index.putIfAbsent(memberId, row.get(member.username));
+                        }
+                    });
+                }
+            });
+            tenantIndex.ready = true;
+            tenantIndex.removedWhileWarming.clear();
+            log.info("username index ready: tenant={}, members={}, {}ms",
+                    tenantId, tenantIndex.index.size(), (System.nanoTime() - start) / 1_000_000);
+        } catch (RuntimeException e) {
+            // 다음 검색 때 처음부터 다시 채우도록 지워둔다
+            indexes.remove(tenantId, tenantIndex);
+            log.warn("failed to build username index: tenant={}", tenantId, e);
+        } finally {
+            TenantContext.clear();
+        }
+    }
+
+    private List<MemberSearchHit> searchDatabase(String query, boolean prefix, int limit) {
+        if (query == null || query.isEmpty() || limit <= 0) {
+            return List.of();
+        }
+        return queryFactory
+                .select(Projections.constructor(MemberSearchHit.class, member.id, member.username))
+                .from(member)
+                .where(prefix ? member.username.startsWith(query) : member.username.contains(query))
+                .orderBy(member.id.asc())
+                .limit(limit)
+                .fetch();
+    }
+
+    private static class TenantIndex {
+
+        final UsernameIndex index = new UsernameIndex();
+        final Set<Long> removedWhileWarming = ConcurrentHashMap.newKeySet();
+        volatile boolean ready;
+        volatile long lastUsedNanos = System.nanoTime();
+    }
+}
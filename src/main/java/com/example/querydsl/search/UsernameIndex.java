@@ -0,0 +1,256 @@
+package com.example.querydsl.search;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Predicate;
+
+/**
+ * username 검색용 메모리 인덱스
+ *
+ * 1. username의 1, 2, 3글자 조각(n-gram)마다 그 조각을 가진 memberId 목록을 정렬된 long 배열로 들고 있다
+ * 2. 첫 1~3글자는 "여기서 시작한다"는 표시를 붙인 조각으로 한 번 더 넣는다 -> 접두사 검색용
+ * 3. 검색: 검색어의 조각 목록들을 짧은 것부터 교집합 (정렬돼 있으니 앞으로만 건너뛰면서 비교)
+ *  -> 교집합에 남은 후보만 실제로 포함/시작하는지 확인
+ *  -> memberId 순서로 나오니까 limit개 찾으면 바로 멈춘다, DB fallback도 같은 순서 (order by id)
+ *
+ * 삭제나 이름 변경은 목록에서 바로 빼기 때문에 빈 칸(tombstone)이 쌓이지 않는다 -> 따로 정리할 필요 없음
+ * 대소문자는 DB의 like와 똑같이 구분한다
+ * */
+public class UsernameIndex {
+
+    private static final long PREFIX_GRAM = 1L << 56;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private final Map<Long, String> usernames = new HashMap<>();
+    private final Map<Long, LongList> postings = new HashMap<>();
+
+    /**
+     * 새 회원이거나 이름이 바뀌었으면 반영한다
+     * */
+    public void put(long memberId, String username) {
+        lock.writeLock().lock();
+        try {
+            String previous = usernames.get(memberId);
+            if (previous != null && previous.equals(username)) {
+                return;
+            }
+            removeInternal(memberId);
+            if (username != null) {
+                addInternal(memberId, username);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * 이미 있는 회원이면 건드리지 않는다
+     * 전체 스캔으로 채우는 중에 들어온 최신 변경을 예전 값으로 덮어쓰지 않기 위해 사용
+     * */
+    public void putIfAbsent(long memberId, String username) {
+        lock.writeLock().lock();
+        try {
+            if (username != null && !usernames.containsKey(memberId)) {
+                addInternal(memberId, username);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(long memberId) {
+        lock.writeLock().lock();
+        try {
+            removeInternal(memberId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return usernames.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public List<MemberSearchHit> prefix(String query, int limit) {
+        if (query == null || query.isEmpty() || limit <= 0) {
+            return List.of();
+        }
+        Set<Long> grams = new LinkedHashSet<>();
+        grams.add(gram(query, 0, Math.min(3, query.length()), PREFIX_GRAM));
+        for (int i = 1; i + 3 <= query.length(); i++) {
+            grams.add(gram(query, i, 3, 0));
+        }
+        return search(grams, limit, username -> username.startsWith(query));
+    }
+
+    public List<MemberSearchHit> substring(String query, int limit) {
+        if (query == null || query.isEmpty() || limit <= 0) {
+            return List.of();
+        }
+        Set<Long> grams = new LinkedHashSet<>();
+        if (query.length() <= 3) {
+            grams.add(gram(query, 0, query.length(), 0));
+        } else {
+            for (int i = 0; i + 3 <= query.length(); i++) {
+                grams.add(gram(query, i, 3, 0));
+            }
+        }
+        return search(grams, limit, username -> username.contains(query));
+    }
+
+    private List<MemberSearchHit> search(Set<Long> grams, int limit, Predicate<String> matches) {
+        lock.readLock().lock();
+        try {
+            LongList[] lists = new LongList[grams.size()];
+            int n = 0;
+            for (Long gram : grams) {
+                LongList posting = postings.get(gram);
+                if (posting == null) {
+                    return List.of();
+                }
+                lists[n++] = posting;
+            }
+            Arrays.sort(lists, Comparator.comparingInt(list -> list.size));
+
+            List<MemberSearchHit> hits = new ArrayList<>();
+            int[] cursors = new int[lists.length];
+            LongList smallest = lists[0];
+
+            candidates:
+            for (int i = 0; i < smallest.size && hits.size() < limit; i++) {
+                long memberId = smallest.values[i];
+                for (int l = 1; l < lists.length; l++) {
+                    int position = lists[l].advance(cursors[l], memberId);
+                    cursors[l] = position;
+                    if (position == lists[l].size) {
+                        break candidates;
+                    }
+                    if (lists[l].values[position] != memberId) {
+                        continue candidates;
+                    }
+                }
+                String username = usernames.get(memberId);
+                if (matches.test(username)) {
+                    hits.add(new MemberSearchHit(memberId, username));
+                }
+            }
+            return hits;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void addInternal(long memberId, String username) {
+        usernames.put(memberId, username);
+        for (Long gram : gramsOf(username)) {
+            postings.computeIfAbsent(gram, key -> new LongList()).add(memberId);
+        }
+    }
+
+    private void removeInternal(long memberId) {
+        String previous = usernames.remove(memberId);
+        if (previous == null) {
+            return;
+        }
+        for (Long gram : gramsOf(previous)) {
+            LongList posting = postings.get(gram);
+            if (posting != null && posting.remove(memberId) && posting.size == 0) {
+                postings.remove(gram);
+            }
+        }
+    }
+
+    private static Set<Long> gramsOf(String username) {
+        Set<Long> grams = new LinkedHashSet<>();
+        for (int length = 1; length <= 3 && length <= username.length(); length++) {
+            grams.add(gram(username, 0, length, PREFIX_GRAM));
+            for (int i = 0; i + length <= username.length(); i++) {
+                grams.add(gram(username, i, length, 0));
+            }
+        }
+        return grams;
+    }
+
+    /**
+     * [종류 8bit][길이 8bit][글자 3개 x 16bit] 를 long 하나에 담는다
+     * */
+    private static long gram(String s, int offset, int length, long kind) {
+        long key = kind | ((long) length << 48);
+        for (int i = 0; i < length; i++) {
+            key |= (long) s.charAt(offset + i) << (16 * (2 - i));
+        }
+        return key;
+    }
+
+    /**
+     * 박싱 없이 memberId를 오름차순으로 들고 있는 배열
+     * id는 보통 늘어나는 순서로 들어오니까 대부분 끝에 붙이기만 한다
+     * */
+    private static class LongList {
+
+        long[] values = new long[4];
+        int size;
+
+        void add(long value) {
+            if (size > 0 && values[size - 1] >= value) {
+                int index = Arrays.binarySearch(values, 0, size, value);
+                if (index >= 0) {
+                    return;
+                }
+                insertAt(-index - 1, value);
+                return;
+            }
+            insertAt(size, value);
+        }
+
+        boolean remove(long value) {
+            int index = Arrays.binarySearch(values, 0, size, value);
+            if (index < 0) {
+                return false;
+            }
+            System.arraycopy(values, index + 1, values, index, size - index - 1);
+            size--;
+            return true;
+        }
+
+        /**
+         * from부터 target 이상인 첫 위치, 거리를 두 배씩 늘려가며 찾고(galloping) 그 구간만 이진 탐색
+         * */
+        int advance(int from, long target) {
+            if (from >= size || values[from] >= target) {
+                return from;
+            }
+            int bound = 1;
+            while (from + bound < size && values[from + bound] < target) {
+                bound <<= 1;
+            }
+            int low = from + (bound >> 1) + 1;
+            int high = Math.min(from + bound, size);
+            int index = Arrays.binarySearch(values, low, high, target);
+            return index >= 0 ? index : -index - 1;
+        }
+
+        private void insertAt(int index, long value) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            System.arraycopy(values, index, values, index + 1, size - index);
+            values[index] = value;
+            size++;
+        }
+    }
+}
@@ -0,0 +1,48 @@
+package com.example.querydsl.sqllog;
+
+import com.p6spy.engine.common.StatementInformation;
+import com.p6spy.engine.event.SimpleJdbcEventListener;
+
+import java.sql.SQLException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * p6spy 기본 로거 대신 붙이는 리스너
+ *
+ * 1. 느린 쿼리, 실패한 쿼리는 항상 남긴다
+ * 2. 나머지는 sampleRate개 중 하나만 남긴다
+ * 3. 남기지 않을 쿼리는 getSqlWithValues()를 부르지 않는다 -> 바인딩 값 문자열 포맷팅 비용이 없음
+ *
+ * 카운터를 공유하면 스레드끼리 경합이 생기니까 샘플링은 ThreadLocalRandom으로 한다
+ * */
+public class SampledSqlLogListener extends SimpleJdbcEventListener {
+
+    private final SqlLogWriter writer;
+    private final int sampleRate;
+    private final long slowThresholdNanos;
+
+    public SampledSqlLogListener(SqlLogWriter writer, SqlLogProperties properties) {
+        this.writer = writer;
+        this.sampleRate = Math.max(1, properties.sampleRate());
+        this.slowThresholdNanos = TimeUnit.MILLISECONDS.toNanos(properties.slowThresholdMs());
+    }
+
+    @Override
+    public void onAfterAnyExecute(StatementInformation statementInformation, long timeElapsedNanos, SQLException e) {
+        boolean slow = timeElapsedNanos >= slowThresholdNanos;
+        if (e == null && !slow && !sampled()) {
+            return;
+        }
+
+        writer.submit(new SqlLogEntry(
+                statementInformation.getSqlWithValues(),
+                timeElapsedNanos,
+                slow,
+                e == null ? null : e.getMessage()));
+    }
+
+    private boolean sampled() {
+        return sampleRate == 1 || ThreadLocalRandom.current().nextInt(sampleRate) == 0;
+    }
+}
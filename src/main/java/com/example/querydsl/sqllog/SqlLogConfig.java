@@ -0,0 +1,26 @@
+package com.example.querydsl.sqllog;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * p6spy-spring-boot-starter는 JdbcEventListener 타입 빈을 자동으로 등록해준다
+ * -> 여기서 빈으로만 만들어주면 모든 DataSource에 붙는다
+ * */
+@Configuration
+@EnableConfigurationProperties(SqlLogProperties.class)
+@ConditionalOnProperty(prefix = "querydsl.sql-log", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class SqlLogConfig {
+
+    @Bean
+    public SqlLogWriter sqlLogWriter(SqlLogProperties properties) {
+        return new SqlLogWriter(properties.bufferSize());
+    }
+
+    @Bean
+    public SampledSqlLogListener sampledSqlLogListener(SqlLogWriter sqlLogWriter, SqlLogProperties properties) {
+        return new SampledSqlLogListener(sqlLogWriter, properties);
+    }
+}
@@ -0,0 +1,13 @@
+package com.example.querydsl.sqllog;
+
+/**
+ * 버퍼에 쌓이는 한 건의 로그
+ * 바인딩 값 포맷팅이 끝난 SQL만 들고 있어서 PreparedStatement가 재사용돼도 값이 바뀌지 않는다
+ * */
+public record SqlLogEntry(
+        String sql,
+        long elapsedNanos,
+        boolean slow,
+        String error
+) {
+}
@@ -0,0 +1,20 @@
+package com.example.querydsl.sqllog;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * querydsl.sql-log.*
+ *
+ * sampleRate: N개 중 1개만 남긴다 (1이면 전부)
+ * slowThresholdMs: 이 시간보다 오래 걸린 쿼리는 샘플링과 상관없이 항상 남긴다
+ * bufferSize: 로그 스레드가 따라오지 못할 때 쌓아둘 수 있는 개수, 넘치면 버린다
+ * */
+@ConfigurationProperties(prefix = "querydsl.sql-log")
+public record SqlLogProperties(
+        @DefaultValue("true") boolean enabled,
+        @DefaultValue("100") int sampleRate,
+        @DefaultValue("200") long slowThresholdMs,
+        @DefaultValue("4096") int bufferSize
+) {
+}
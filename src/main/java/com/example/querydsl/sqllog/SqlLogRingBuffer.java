@@ -0,0 +1,79 @@
+package com.example.querydsl.sqllog;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 여러 요청 스레드가 넣고(multi-producer) 로그 스레드 하나만 꺼내는(single-consumer) 고정 크기 링 버퍼
+ *
+ * 락 없이 CAS로 자리만 잡고 바로 돌아가기 때문에 요청 스레드가 로그 I/O를 기다리지 않는다
+ * 버퍼가 가득 차면 기다리지 않고 버린다 -> 로그 때문에 쿼리가 느려지는 일은 없어야 하니까
+ * */
+public class SqlLogRingBuffer<E> {
+
+    private final AtomicReferenceArray<E> slots;
+    private final int mask;
+
+    private final AtomicLong tail = new AtomicLong();
+    private final AtomicLong head = new AtomicLong();
+
+    private final LongAdder dropped = new LongAdder();
+
+    public SqlLogRingBuffer(int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("capacity must be positive: " + capacity);
+        }
+        int size = Integer.highestOneBit(capacity);
+        if (size < capacity) {
+            size <<= 1;
+        }
+        this.slots = new AtomicReferenceArray<>(size);
+        this.mask = size - 1;
+    }
+
+    public boolean offer(E element) {
+        long t;
+        do {
+            t = tail.get();
+            if (t - head.get() >= slots.length()) {
+                dropped.increment();
+                return false;
+            }
+        } while (!tail.compareAndSet(t, t + 1));
+
+        slots.lazySet((int) t & mask, element);
+        return true;
+    }
+
+    /**
+     * consumer 스레드 하나에서만 호출해야 한다
+     * 자리는 잡혔는데 아직 값이 안 들어온 칸이면 null을 돌려주고 다음 번에 다시 읽는다
+     * */
+    public E poll() {
+        long h = head.get();
+        int index = (int) h & mask;
+        E element = slots.get(index);
+        if (element == null) {
+            return null;
+        }
+        slots.lazySet(index, null);
+        head.lazySet(h + 1);
+        return element;
+    }
+
+    /**
+     * 자리만 잡히고 아직 값이 안 들어온 칸이 있어도 비어있지 않은 걸로 본다
+     * */
+    public boolean isEmpty() {
+        return tail.get() == head.get();
+    }
+
+    public int capacity() {
+        return slots.length();
+    }
+
+    public long droppedCount() {
+        return dropped.sum();
+    }
+}
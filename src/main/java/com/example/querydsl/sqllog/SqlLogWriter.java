@@ -0,0 +1,96 @@
+package com.example.querydsl.sqllog;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * 링 버퍼를 비우면서 실제 로그를 찍는 백그라운드 스레드
+ *
+ * 요청 스레드는 offer만 하고 끝나기 때문에 로거 appender의 동기 I/O를 기다리지 않는다
+ * 버퍼가 비면 타이머 없이 park하고, submit이 잠든 걸 보면 그때만 unpark한다
+ *  -> 쿼리가 없는 동안에는 스레드가 깨어나지 않는다
+ *  -> idle을 먼저 쓰고 버퍼를 다시 확인하기 때문에, 그 사이에 들어온 로그를 놓치고 잠드는 일은 없다
+ * */
+@Slf4j
+public class SqlLogWriter {
+
+    private final SqlLogRingBuffer<SqlLogEntry> buffer;
+    private final Thread drainThread;
+
+    private volatile boolean running;
+    private volatile boolean idle;
+
+    public SqlLogWriter(int bufferSize) {
+        this.buffer = new SqlLogRingBuffer<>(bufferSize);
+        this.drainThread = new Thread(this::drainLoop, "sql-log-writer");
+        this.drainThread.setDaemon(true);
+    }
+
+    public boolean submit(SqlLogEntry entry) {
+        boolean offered = buffer.offer(entry);
+        if (offered && idle) {
+            LockSupport.unpark(drainThread);
+        }
+        return offered;
+    }
+
+    public long droppedCount() {
+        return buffer.droppedCount();
+    }
+
+    @PostConstruct
+    public void start() {
+        running = true;
+        drainThread.start();
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        running = false;
+        LockSupport.unpark(drainThread);
+        drainThread.join(TimeUnit.SECONDS.toMillis(1));
+    }
+
+    private void drainLoop() {
+        while (running) {
+            if (drainOnce() > 0) {
+                continue;
+            }
+            idle = true;
+            if (running && buffer.isEmpty()) {
+                LockSupport.park(this);
+            } else {
+                // 자리만 잡고 아직 값을 쓰는 중인 producer가 있다
+                Thread.onSpinWait();
+            }
+            idle = false;
+        }
+        // 종료 직전에 남은 건 마저 찍어준다
+        drainOnce();
+    }
+
+    private int drainOnce() {
+        int drained = 0;
+        SqlLogEntry entry;
+        while ((entry = buffer.poll()) != null) {
+            write(entry);
+            drained++;
+        }
+        return drained;
+    }
+
+    private void write(SqlLogEntry entry) {
+        long elapsedMs = TimeUnit.NANOSECONDS.toMillis(entry.elapsedNanos());
+        if (entry.error() != null) {
+            log.warn("[{}ms] {} -> {}", elapsedMs, entry.sql(), entry.error());
+        } else if (entry.slow()) {
+            log.warn("[slow {}ms] {}", elapsedMs, entry.sql());
+        } else {
+            log.info("[{}ms] {}", elapsedMs, entry.sql());
+        }
+    }
+}
@@ -0,0 +1,7 @@
+package com.example.querydsl.subquery;
+
+/**
+ * select(member.username, select(memberSub.age.avg()).from(memberSub)) 결과를 담는 DTO
+ * */
+public record MemberAvgAgeDto(String username, Double avgAge) {
+}
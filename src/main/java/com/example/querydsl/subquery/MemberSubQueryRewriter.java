@@ -0,0 +1,130 @@
+package com.example.querydsl.subquery;
+
+import com.example.querydsl.entity.Member;
+import com.example.querydsl.entity.QMember;
+import com.querydsl.core.types.Predicate;
+import com.querydsl.jpa.impl.JPAQueryFactory;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Isolation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+import java.util.function.Function;
+
+import static com.example.querydsl.entity.QMember.member;
+
+/**
+ * QuerydslBasicTest의 서브쿼리 예제들을 다른 형태로 바꾼 버전
+ *
+ * 1. max/avg 비교 (sub_Query, sub_Query2)
+ *  -> 집계값을 먼저 한 번 구하고 바인딩 파라미터로 비교한다 (derived aggregate)
+ *  -> 원래 서브쿼리도 바깥 row를 참조하지 않는(uncorrelated) 서브쿼리라 DB가 이미 한 번만 계산한다
+ *     row마다 다시 계산하는 걸 줄이는 게 아니라, 옵티마이저가 age = (서브쿼리)를 인덱스로 못 풀 때
+ *     age = ? 로 확실하게 인덱스를 타게 하는 용도
+ *
+ * 2. in 서브쿼리 (sub_Query_in)
+ *  -> 1과 같은 방식: 조건에 맞는 age 목록(distinct)을 먼저 한 번 구하고 age in (?, ?, ...) 로 비교한다
+ *  -> 바깥 row마다 도는 correlated exists나, row가 불어나는 조인 + distinct를 쓰지 않는다
+ *  -> age 종류는 많지 않으니 바인딩 파라미터 수도 작다
+ *
+ * 3. select 절 스칼라 서브쿼리 (select_subQuery)
+ *  -> 한 번 구해서 애플리케이션에서 붙인다
+ *
+ * 1, 2, 3은 쿼리가 두 번 나가니까 그 사이에 다른 트랜잭션이 쓰면 원래 쿼리로는 나올 수 없는 결과가 나올 수 있다
+ * (예: max 나이 회원이 그 사이 삭제되면 빈 결과)
+ * -> 두 쿼리를 하나의 readOnly 트랜잭션 + REPEATABLE_READ로 묶어서 같은 스냅샷을 보게 한다
+ * */
+@Component
+@RequiredArgsConstructor
+@Transactional(readOnly = true, isolation = Isolation.REPEATABLE_READ)
+public class MemberSubQueryRewriter {
+
+    private final JPAQueryFactory queryFactory;
+
+    /**
+     * member.age.eq(select(memberSub.age.max()).from(memberSub))
+     * */
+    public List<Member> findWithMaxAge() {
+        QMember memberSub = new QMember("memberSub");
+
+        Integer maxAge = queryFactory
+                .select(memberSub.age.max())
+                .from(memberSub)
+                .fetchOne();
+
+        // 서브쿼리 결과가 null이면 age = null 이라서 아무것도 안 나온다 -> 똑같이 맞춰줌
+        if (maxAge == null) {
+            return List.of();
+        }
+
+        return queryFactory
+                .selectFrom(member)
+                .where(member.age.eq(maxAge))
+                .fetch();
+    }
+
+    /**
+     * member.age.goe(select(memberSub.age.avg()).from(memberSub))
+     * */
+    public List<Member> findWithAgeGoeAvg() {
+        Double avgAge = findAvgAge();
+        if (avgAge == null) {
+            return List.of();
+        }
+
+        // age 파라미터는 Integer로 바인딩돼서 49.5가 49로 잘린다 -> 정수 나이에서 age >= avg 는 age >= ceil(avg)
+        return queryFactory
+                .selectFrom(member)
+                .where(member.age.goe((int) Math.ceil(avgAge)))
+                .fetch();
+    }
+
+    /**
+     * member.age.in(select(memberSub.age).from(memberSub).where(subCondition))
+     * */
+    public List<Member> findWithAgeIn(Function<QMember, Predicate> subCondition) {
+        QMember memberSub = new QMember("memberSub");
+
+        List<Integer> ages = queryFactory
+                .select(memberSub.age)
+                .distinct()
+                .from(memberSub)
+                .where(subCondition.apply(memberSub))
+                .fetch();
+
+        // 서브쿼리 결과가 비어 있으면 in ()은 항상 false -> 똑같이 맞춰줌
+        if (ages.isEmpty()) {
+            return List.of();
+        }
+
+        return queryFactory
+                .selectFrom(member)
+                .where(member.age.in(ages))
+                .fetch();
+    }
+
+    /**
+     * select(member.username, select(memberSub.age.avg()).from(memberSub)).from(member)
+     * */
+    public List<MemberAvgAgeDto> findUsernamesWithAvgAge() {
+        Double avgAge = findAvgAge();
+
+        return queryFactory
+                .select(member.username)
+                .from(member)
+                .fetch()
+                .stream()
+                .map(username -> new MemberAvgAgeDto(username, avgAge))
+                .toList();
+    }
+
+    private Double findAvgAge() {
+        QMember memberSub = new QMember("memberSub");
+
+        return queryFactory
+                .select(memberSub.age.avg())
+                .from(memberSub)
+                .fetchOne();
+    }
+}
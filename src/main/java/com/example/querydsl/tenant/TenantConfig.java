@@ -0,0 +1,9 @@
+package com.example.querydsl.tenant;
+
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@EnableConfigurationProperties(TenantProperties.class)
+public class TenantConfig {
+}
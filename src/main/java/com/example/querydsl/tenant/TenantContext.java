@@ -0,0 +1,30 @@
+package com.example.querydsl.tenant;
+
+/**
+ * 현재 스레드가 어떤 테넌트의 데이터를 보고 있는지
+ *
+ * Hibernate 세션이 열릴 때 이 값을 읽어가기 때문에 트랜잭션 시작 전에 세팅돼 있어야 한다
+ * 아무것도 세팅하지 않으면 DEFAULT_TENANT
+ * */
+public final class TenantContext {
+
+    public static final String DEFAULT_TENANT = "default";
+
+    private static final ThreadLocal<String> CURRENT = new ThreadLocal<>();
+
+    private TenantContext() {
+    }
+
+    public static String get() {
+        String tenantId = CURRENT.get();
+        return tenantId != null ? tenantId : DEFAULT_TENANT;
+    }
+
+    public static void set(String tenantId) {
+        CURRENT.set(tenantId);
+    }
+
+    public static void clear() {
+        CURRENT.remove();
+    }
+}
@@ -0,0 +1,64 @@
+package com.example.querydsl.tenant;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+/**
+ * X-Tenant-Id 헤더로 요청의 테넌트를 정한다
+ * open-in-view 때문에 요청 시작부터 세션이 열리니까 필터 단계에서 세팅해야 한다
+ *
+ * querydsl.tenant.allowed에 없는 테넌트면 403
+ * 헤더가 없으면 기본 테넌트 (기존 API 그대로), querydsl.tenant.require-header=true면 400
+ *
+ * 인증이 붙으면 헤더 대신 인증된 사용자에게서 테넌트를 꺼내야 한다
+ * */
+@Component
+@RequiredArgsConstructor
+public class TenantFilter extends OncePerRequestFilter {
+
+    public static final String TENANT_HEADER = "X-Tenant-Id";
+
+    private final TenantProperties tenantProperties;
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request,
+                                    HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+        String tenantId = request.getHeader(TENANT_HEADER);
+        if (!StringUtils.hasText(tenantId)) {
+            if (tenantProperties.requireHeader()) {
+                response.sendError(HttpServletResponse.SC_BAD_REQUEST, TENANT_HEADER + " header is required");
+                return;
+            }
+            tenantId = TenantContext.DEFAULT_TENANT;
+        }
+        if (!tenantProperties.isKnown(tenantId)) {
+            response.sendError(HttpServletResponse.SC_FORBIDDEN, "unknown tenant");
+            return;
+        }
+
+        TenantContext.set(tenantId);
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            TenantContext.clear();
+        }
+    }
+
+    /**
+     * 데이터를 건드리지 않는 문서/에러 페이지는 테넌트 없이 통과
+     * */
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        String path = request.getRequestURI();
+        return path.startsWith("/swagger-ui") || path.startsWith("/v3/api-docs") || path.equals("/error");
+    }
+}
@@ -0,0 +1,33 @@
+package com.example.querydsl.tenant;
+
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.context.spi.CurrentTenantIdentifierResolver;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+
+/**
+ * 엔티티의 @TenantId 필드를 채우고, 모든 쿼리에 tenant_id = ? 조건을 붙일 때 Hibernate가 사용하는 값
+ *
+ * JPQL로 번역되는 Querydsl 쿼리도 전부 여기를 거치기 때문에
+ * JPAQueryFactory 쿼리마다 테넌트 조건을 직접 쓸 필요가 없다
+ * */
+@Component
+public class TenantIdentifierResolver implements CurrentTenantIdentifierResolver, HibernatePropertiesCustomizer {
+
+    @Override
+    public String resolveCurrentTenantIdentifier() {
+        return TenantContext.get();
+    }
+
+    @Override
+    public boolean validateExistingCurrentSessions() {
+        return false;
+    }
+
+    @Override
+    public void customize(Map<String, Object> hibernateProperties) {
+        hibernateProperties.put(AvailableSettings.MULTI_TENANT_IDENTIFIER_RESOLVER, this);
+    }
+}
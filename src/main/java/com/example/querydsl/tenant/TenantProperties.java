@@ -0,0 +1,24 @@
+package com.example.querydsl.tenant;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.util.Set;
+
+/**
+ * querydsl.tenant.allowed: 요청 헤더로 받을 수 있는 테넌트 목록
+ * 목록에 없는 테넌트는 TenantFilter에서 거절한다
+ *
+ * querydsl.tenant.require-header: true면 헤더 없는 요청을 400으로 거절한다
+ * 기본은 false -> 헤더가 없으면 기본 테넌트, 헤더를 모르는 기존 클라이언트가 그대로 동작한다
+ * */
+@ConfigurationProperties(prefix = "querydsl.tenant")
+public record TenantProperties(
+        @DefaultValue(TenantContext.DEFAULT_TENANT) Set<String> allowed,
+        @DefaultValue("false") boolean requireHeader
+) {
+
+    public boolean isKnown(String tenantId) {
+        return tenantId != null && allowed.contains(tenantId);
+    }
+}
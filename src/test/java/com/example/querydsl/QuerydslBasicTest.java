@@ -563,4 +563,67 @@ public class QuerydslBasicTest {
             System.out.println("s: " + s);
         }
     }
+
+
+    /**
+     * 나이대별 회원 수
+     * CASE로 매번 나이대를 계산하지 않고 DB가 계산해둔 age_bucket 컬럼으로 group by 한다
+     * */
+    @Test
+    @DisplayName("나이대 컬럼으로 group by")
+    public void ageBucket_groupBy(){
+        em.persist(new Member("member5", 15));
+
+        List<Tuple> result = queryFactory
+                .select(member.ageBucket,
+                        member.count())
+                .from(member)
+                .groupBy(member.ageBucket)
+                .orderBy(member.ageBucket.asc())
+                .fetch();
+
+        assertThat(result).extracting(tuple -> tuple.get(member.ageBucket))
+                .containsExactly(10, 20, 30, 40);
+        assertThat(result.get(0).get(member.count())).isEqualTo(2);
+    }
+
+
+    @Test
+    @DisplayName("나이대 컬럼으로 필터, 나이를 바꾸면 같이 바뀐다")
+    public void ageBucket_where(){
+        Member member1 = queryFactory
+                .selectFrom(member)
+                .where(member.username.eq("member1"))
+                .fetchOne();
+        member1.setAge(25);
+        em.flush();
+        em.clear();
+
+        List<Member> result = queryFactory
+                .selectFrom(member)
+                .where(member.ageBucket.eq(Member.ageBucketOf(20)))
+                .fetch();
+
+        assertThat(result).extracting("username")
+                .containsExactlyInAnyOrder("member1", "member2");
+    }
+
+
+    @Test
+    @DisplayName("벌크 update로 나이를 바꿔도 나이대가 따라온다 (generated column)")
+    public void ageBucket_bulkUpdate(){
+        queryFactory
+                .update(member)
+                .set(member.age, member.age.add(10))
+                .execute();
+        em.clear();
+
+        List<Tuple> result = queryFactory
+                .select(member.age, member.ageBucket)
+                .from(member)
+                .fetch();
+
+        assertThat(result).allSatisfy(tuple -> assertThat(tuple.get(member.ageBucket))
+                .isEqualTo(Member.ageBucketOf(tuple.get(member.age))));
+    }
 }
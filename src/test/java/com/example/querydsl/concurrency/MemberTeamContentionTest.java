@@ -0,0 +1,208 @@
+package com.example.querydsl.concurrency;
+
+import com.example.querydsl.entity.Member;
+import com.example.querydsl.entity.Team;
+import com.example.querydsl.tenant.TenantContext;
+import com.querydsl.core.Tuple;
+import com.querydsl.jpa.impl.JPAQueryFactory;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.OptimisticLockException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static com.example.querydsl.entity.QMember.member;
+import static com.example.querydsl.entity.QTeam.team;
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 여러 스레드가 동시에 커밋해야 해서 @Transactional을 쓰지 않는다
+ * 다른 테스트와 DB를 같이 쓰지 않게 이 테스트 전용 인메모리 H2를 쓴다 (전용 테넌트도 쓰고 끝나면 지운다)
+ * */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:contention;DB_CLOSE_DELAY=-1",
+        "spring.jpa.hibernate.ddl-auto=create-drop"
+})
+class MemberTeamContentionTest {
+
+    @Autowired
+    EntityManager em;
+
+    @Autowired
+    JPAQueryFactory queryFactory;
+
+    @Autowired
+    TransactionTemplate transactionTemplate;
+
+    @Autowired
+    MemberTeamService memberTeamService;
+
+    @Autowired
+    OptimisticRetryExecutor retryExecutor;
+
+    final String tenantId = "contention-" + UUID.randomUUID().toString().substring(0, 8);
+
+    final List<Long> memberIds = new ArrayList<>();
+    final List<Long> teamIds = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        TenantContext.set(tenantId);
+        transactionTemplate.executeWithoutResult(status -> {
+            List<Team> teams = new ArrayList<>();
+            for (int i = 0; i < 16; i++) {
+                Team created = new Team("team" + i);
+                em.persist(created);
+                teams.add(created);
+            }
+            List<Member> members = new ArrayList<>();
+            for (int i = 0; i < 64; i++) {
+                Member created = new Member("member" + i, i, teams.get(i % teams.size()));
+                em.persist(created);
+                members.add(created);
+            }
+            em.flush();
+            teams.forEach(created -> teamIds.add(created.getId()));
+            members.forEach(created -> memberIds.add(created.getId()));
+        });
+    }
+
+    @AfterEach
+    void tearDown() {
+        TenantContext.set(tenantId);
+        transactionTemplate.executeWithoutResult(status -> {
+            queryFactory.delete(member).execute();
+            queryFactory.delete(team).execute();
+        });
+        TenantContext.clear();
+    }
+
+
+    @Test
+    @DisplayName("충돌이 나면 다시 시도해서 성공한다")
+    public void retry_on_conflict(){
+        long retriesBefore = retryExecutor.retryCount();
+        AtomicInteger calls = new AtomicInteger();
+
+        String result = retryExecutor.execute(() -> {
+            if (calls.incrementAndGet() < 3) {
+                throw new OptimisticLockException("conflict");
+            }
+            return "ok";
+        });
+
+        assertThat(result).isEqualTo("ok");
+        assertThat(calls.get()).isEqualTo(3);
+        assertThat(retryExecutor.retryCount() - retriesBefore).isEqualTo(2);
+    }
+
+
+    /**
+     * 팀을 옮겨도 바뀌는 건 member.team_id와 member.version뿐이다
+     * 팀 row를 건드리지 않으니 같은 팀으로 몰려도 팀 row에서 충돌하지 않는다
+     * */
+    @Test
+    @DisplayName("동시에 같은 팀들로 옮겨도 팀 row는 그대로고 회원은 하나도 안 빠진다")
+    public void team_row_untouched(){
+        long commitsBefore = retryExecutor.commitCount();
+
+        int failed = run(8, 50, memberIds.size(), 2);
+
+        assertThat(retryExecutor.commitCount() - commitsBefore + failed).isEqualTo(8 * 50);
+
+        List<Tuple> teams = transactionTemplate.execute(status -> queryFactory
+                .select(team.id, team.version)
+                .from(team)
+                .fetch());
+        assertThat(teams).hasSize(teamIds.size());
+        for (Tuple tuple : teams) {
+            assertThat(tuple.get(team.version)).as("team %d", tuple.get(team.id)).isZero();
+        }
+
+        List<Long> memberTeamIds = transactionTemplate.execute(status -> queryFactory
+                .select(member.team.id)
+                .from(member)
+                .fetch());
+        assertThat(memberTeamIds).hasSize(memberIds.size());
+        assertThat(teamIds).containsAll(memberTeamIds);
+    }
+
+
+    /**
+     * 옮기는 회원 수를 줄일수록 같은 Member 버전에서 부딪히는 일이 많아진다
+     * 팀 수는 고정이다, 팀 row는 안 바뀌니까 팀 수는 경합에 영향이 없다
+     * 커밋 수/초와 요청당 재시도 횟수를 찍어본다
+     * */
+    @Test
+    @DisplayName("경합 정도별 commits/sec, retry rate")
+    public void contention_benchmark(){
+        for (int targetMembers : new int[]{64, 8, 1}) {
+            long commitsBefore = retryExecutor.commitCount();
+            long retriesBefore = retryExecutor.retryCount();
+
+            long start = System.nanoTime();
+            int failed = run(8, 50, targetMembers, teamIds.size());
+            double seconds = (System.nanoTime() - start) / 1_000_000_000.0;
+
+            long commits = retryExecutor.commitCount() - commitsBefore;
+            long retries = retryExecutor.retryCount() - retriesBefore;
+            System.out.printf("targetMembers=%d commits/sec=%.1f retries/op=%.2f failed=%d%n",
+                    targetMembers, commits / seconds, (double) retries / (commits + failed), failed);
+        }
+    }
+
+    /**
+     * @return 재시도를 다 쓰고도 실패한 요청 수
+     * */
+    private int run(int threads, int opsPerThread, int targetMembers, int targetTeams) {
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        List<Future<Integer>> futures = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            futures.add(executor.submit(() -> {
+                TenantContext.set(tenantId);
+                int failed = 0;
+                try {
+                    for (int i = 0; i < opsPerThread; i++) {
+                        ThreadLocalRandom random = ThreadLocalRandom.current();
+                        Long memberId = memberIds.get(random.nextInt(targetMembers));
+                        Long teamId = teamIds.get(random.nextInt(targetTeams));
+                        try {
+                            memberTeamService.changeTeam(memberId, teamId);
+                        } catch (OptimisticLockException | OptimisticLockingFailureException e) {
+                            failed++;
+                        }
+                    }
+                } finally {
+                    TenantContext.clear();
+                }
+                return failed;
+            }));
+        }
+
+        int failed = 0;
+        try {
+            for (Future<Integer> future : futures) {
+                failed += future.get();
+            }
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        } finally {
+            executor.shutdown();
+        }
+        return failed;
+    }
+}
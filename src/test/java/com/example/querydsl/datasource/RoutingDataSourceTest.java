@@ -0,0 +1,194 @@
+package com.example.querydsl.datasource;
+
+import com.example.querydsl.entity.Member;
+import com.example.querydsl.entity.Team;
+import com.example.querydsl.n1.MemberRepository;
+import com.example.querydsl.tenant.TenantContext;
+import com.example.querydsl.tenant.TenantFilter;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * 로컬에는 복제가 없으니 primary, replica 풀 둘 다 같은 인메모리 H2를 보게 한다 (application.yml routing 프로필과 같은 구성)
+ * -> Hibernate가 primary로 만든 테이블과 데이터를 replica 풀에서도 그대로 읽을 수 있다
+ * 풀마다 커넥션을 만들 때 @pool 세션 변수를 심어두고 select @pool 로 실제 어느 풀에서 나온 커넥션인지 확인한다
+ * routing 프로필을 그대로 켜고 주소만 바꾼다 (p6spy 제외 설정까지 실제와 같게)
+ * */
+@ActiveProfiles("routing")
+@SpringBootTest(properties = {
+        "querydsl.routing.max-replica-lag=10m",
+        "querydsl.routing.primary.jdbc-url=jdbc:h2:mem:routing;DB_CLOSE_DELAY=-1",
+        "querydsl.routing.primary.username=sa",
+        "querydsl.routing.primary.pool-name=primary",
+        "querydsl.routing.primary.connection-init-sql=set @pool = 'primary'",
+        "querydsl.routing.replica.jdbc-url=jdbc:h2:mem:routing;DB_CLOSE_DELAY=-1",
+        "querydsl.routing.replica.username=sa",
+        "querydsl.routing.replica.pool-name=replica",
+        "querydsl.routing.replica.connection-init-sql=set @pool = 'replica'",
+        "spring.jpa.hibernate.ddl-auto=create-drop"
+})
+@AutoConfigureMockMvc
+@Import(RoutingDataSourceTest.RoutingProbeController.class)
+class RoutingDataSourceTest {
+
+    @Autowired
+    MockMvc mockMvc;
+
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    PlatformTransactionManager transactionManager;
+
+    @Autowired
+    RoutingDataSourceMetrics metrics;
+
+    @Autowired
+    MemberRepository memberRepository;
+
+    @Autowired
+    EntityManager em;
+
+    @AfterEach
+    void tearDown() {
+        ReadYourWritesContext.clear();
+    }
+
+
+    @Test
+    @DisplayName("readOnly 트랜잭션은 replica로 간다")
+    public void readOnly_goes_to_replica(){
+        assertThat(currentPool(true)).isEqualToIgnoringCase("replica");
+        assertThat(currentPool(false)).isEqualToIgnoringCase("primary");
+    }
+
+
+    @Test
+    @DisplayName("쓰기 직후의 읽기는 primary에 붙는다")
+    public void read_your_writes(){
+        long stickyBefore = metrics.stickyReadCount();
+
+        currentPool(false);
+        assertThat(currentPool(true)).isEqualToIgnoringCase("primary");
+        assertThat(metrics.stickyReadCount()).isEqualTo(stickyBefore + 1);
+
+        // 요청이 끝나면 (ReadYourWritesFilter) 다시 replica
+        ReadYourWritesContext.clear();
+        assertThat(currentPool(true)).isEqualToIgnoringCase("replica");
+    }
+
+
+    @Test
+    @DisplayName("풀별 라우팅 횟수")
+    public void metrics(){
+        long replicaBefore = metrics.routedCount(DataSourceType.REPLICA);
+
+        currentPool(true);
+        currentPool(true);
+
+        assertThat(metrics.routedCount(DataSourceType.REPLICA)).isEqualTo(replicaBefore + 2);
+        assertThat(metrics.snapshot()).containsKeys("primary", "replica", "stickyReads");
+    }
+
+    /**
+     * open-in-view로 요청 내내 같은 EntityManager를 쓰면서 읽기 -> 쓰기 -> 읽기
+     * 처음 잡은 replica 커넥션을 계속 들고 있으면 쓰기까지 replica로 가 버린다
+     * */
+    @Test
+    @DisplayName("한 요청 안에서 읽고 쓰고 다시 읽기")
+    public void read_write_read_in_one_request() throws Exception {
+        String first = probe();
+        String second = probe();
+
+        assertThat(first).isEqualToIgnoringCase("replica,primary,primary");
+        // 요청이 끝나면 쓰기 표시가 지워져서 다음 요청은 다시 replica부터
+        assertThat(second).isEqualToIgnoringCase("replica,primary,primary");
+    }
+
+    /**
+     * Spring Data의 readOnly 조회(findAllWithTeam)가 replica 풀에서 실제 테이블을 읽는지
+     * */
+    @Test
+    @DisplayName("repository 읽기가 replica에서 동작한다")
+    public void repository_read_on_replica() throws Exception {
+        TransactionTemplate write = new TransactionTemplate(transactionManager);
+        write.executeWithoutResult(status -> {
+            Team team = new Team("routing-team");
+            em.persist(team);
+            em.persist(new Member("routing-member", 10, team));
+        });
+        ReadYourWritesContext.clear();
+
+        long replicaBefore = metrics.routedCount(DataSourceType.REPLICA);
+        List<Member> members = memberRepository.findAllWithTeam();
+
+        assertThat(members).extracting(Member::getUsername).contains("routing-member");
+        assertThat(metrics.routedCount(DataSourceType.REPLICA)).isGreaterThan(replicaBefore);
+
+        mockMvc.perform(get("/all-members2"))
+                .andExpect(status().isOk());
+    }
+
+    private String probe() throws Exception {
+        return mockMvc.perform(get("/routing-probe")
+                        .header(TenantFilter.TENANT_HEADER, TenantContext.DEFAULT_TENANT))
+                .andExpect(status().isOk())
+                .andReturn()
+                .getResponse()
+                .getContentAsString();
+    }
+
+    private String currentPool(boolean readOnly) {
+        TransactionTemplate template = new TransactionTemplate(transactionManager);
+        template.setReadOnly(readOnly);
+        return template.execute(status ->
+                jdbcTemplate.queryForObject("select @pool", String.class));
+    }
+
+
+    @RestController
+    static class RoutingProbeController {
+
+        private final EntityManager em;
+        private final TransactionTemplate readOnlyTransaction;
+        private final TransactionTemplate writeTransaction;
+
+        RoutingProbeController(EntityManager em, PlatformTransactionManager transactionManager) {
+            this.em = em;
+            this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+            this.readOnlyTransaction.setReadOnly(true);
+            this.writeTransaction = new TransactionTemplate(transactionManager);
+        }
+
+        @GetMapping("/routing-probe")
+        public String probe() {
+            String read = readOnlyTransaction.execute(status -> pool());
+            String write = writeTransaction.execute(status -> pool());
+            String readAfterWrite = readOnlyTransaction.execute(status -> pool());
+            return read + "," + write + "," + readAfterWrite;
+        }
+
+        private String pool() {
+            return (String) em.createNativeQuery("select @pool").getSingleResult();
+        }
+    }
+}
@@ -0,0 +1,94 @@
+package com.example.querydsl.n1;
+
+import com.example.querydsl.entity.Member;
+import com.example.querydsl.entity.Team;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TeamIndexedListingTest {
+
+    ObjectMapper objectMapper = new ObjectMapper();
+
+    @Test
+    @DisplayName("TestDTO 직렬화 결과는 기존 형식과 같다")
+    public void testDTO_format() throws Exception {
+        TestDTO dto = TestDTO.builder()
+                .memberName("member1")
+                .teamName("teamA")
+                .build();
+
+        String json = objectMapper.writeValueAsString(dto);
+
+        assertThat(json).isEqualTo("{\"memberName\":\"member1\",\"teamName\":\"teamA\"}");
+        assertThat(objectMapper.readValue(json, TestDTO.class)).isEqualTo(dto);
+    }
+
+
+    @Test
+    @DisplayName("팀 이름은 한 번만 나오고 회원은 인덱스로 가리킨다")
+    public void teamIndexed_format() throws Exception {
+        Team teamA = team(1L, "teamA");
+        Team teamB = team(2L, "teamB");
+
+        List<Member> members = List.of(
+                new Member("member1", 10, teamA),
+                new Member("member2", 20, teamA),
+                new Member("member3", 30, teamB),
+                new Member("member4", 40));
+
+        String json = objectMapper.writeValueAsString(TeamIndexedListing.from(members));
+
+        assertThat(json).isEqualTo("{\"teams\":[[1,\"teamA\"],[2,\"teamB\"]]," +
+                "\"members\":[[\"member1\",0],[\"member2\",0],[\"member3\",1],[\"member4\",null]]}");
+    }
+
+
+    /**
+     * 팀 수는 적고 회원 수는 많은 목록에서 기존 형식과 크기, 직렬화 시간을 비교
+     * */
+    @Test
+    @DisplayName("팀이 많이 겹치는 큰 목록")
+    public void large_listing() throws Exception {
+        List<Team> teams = new ArrayList<>();
+        for (long i = 0; i < 20; i++) {
+            teams.add(team(i, "a-rather-long-team-name-" + i));
+        }
+        List<Member> members = new ArrayList<>();
+        List<TestDTO> dtos = new ArrayList<>();
+        for (int i = 0; i < 100_000; i++) {
+            Member member = new Member("member" + i, i % 80, teams.get(i % teams.size()));
+            members.add(member);
+            dtos.add(new TestDTO(member.getUsername(), member.getTeam().getName()));
+        }
+
+        // warm up
+        for (int i = 0; i < 5; i++) {
+            objectMapper.writeValueAsBytes(dtos);
+            objectMapper.writeValueAsBytes(TeamIndexedListing.from(members));
+        }
+
+        long start = System.nanoTime();
+        byte[] original = objectMapper.writeValueAsBytes(dtos);
+        long originalMicros = (System.nanoTime() - start) / 1_000;
+
+        start = System.nanoTime();
+        byte[] indexed = objectMapper.writeValueAsBytes(TeamIndexedListing.from(members));
+        long indexedMicros = (System.nanoTime() - start) / 1_000;
+
+        System.out.println("original: " + original.length + " bytes, " + originalMicros + "us");
+        System.out.println("team-indexed: " + indexed.length + " bytes, " + indexedMicros + "us");
+        assertThat(indexed.length).isLessThan(original.length / 2);
+    }
+
+    private Team team(Long id, String name) {
+        Team team = new Team(name);
+        team.setId(id);
+        return team;
+    }
+}
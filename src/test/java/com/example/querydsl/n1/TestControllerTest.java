@@ -0,0 +1,97 @@
+package com.example.querydsl.n1;
+
+import com.example.querydsl.entity.Member;
+import com.example.querydsl.entity.Team;
+import com.example.querydsl.tenant.TenantContext;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import static org.hamcrest.Matchers.contains;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * /all-members2 의 Accept 헤더별 응답 형식
+ * 기존 클라이언트(Accept 없음, *\/*, application/json)는 그대로 List<TestDTO>를 받아야 한다
+ * */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:listing;DB_CLOSE_DELAY=-1",
+        "spring.jpa.hibernate.ddl-auto=create-drop"
+})
+@AutoConfigureMockMvc
+class TestControllerTest {
+
+    private static final String ORIGINAL = "[" +
+            "{\"memberName\":\"member1\",\"teamName\":\"teamA\"}," +
+            "{\"memberName\":\"member2\",\"teamName\":\"teamA\"}," +
+            "{\"memberName\":\"member3\",\"teamName\":\"teamB\"}]";
+
+    @Autowired
+    MockMvc mockMvc;
+
+    @Autowired
+    EntityManager em;
+
+    @Autowired
+    TransactionTemplate transactionTemplate;
+
+    @BeforeEach
+    void before() {
+        TenantContext.set(TenantContext.DEFAULT_TENANT);
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                em.createQuery("delete from Member").executeUpdate();
+                em.createQuery("delete from Team").executeUpdate();
+
+                Team teamA = new Team("teamA");
+                Team teamB = new Team("teamB");
+                em.persist(teamA);
+                em.persist(teamB);
+                em.persist(new Member("member1", 10, teamA));
+                em.persist(new Member("member2", 20, teamA));
+                em.persist(new Member("member3", 30, teamB));
+            });
+        } finally {
+            TenantContext.clear();
+        }
+    }
+
+
+    @Test
+    @DisplayName("team-indexed 미디어 타입을 요청하면 팀 이름을 한 번씩만 내려준다")
+    public void team_indexed() throws Exception {
+        mockMvc.perform(get("/all-members2").accept(TeamIndexedListing.MEDIA_TYPE))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(TeamIndexedListing.MEDIA_TYPE))
+                .andExpect(jsonPath("$.teams[*][1]").value(contains("teamA", "teamB")))
+                .andExpect(jsonPath("$.members").value(contains(
+                        contains("member1", 0), contains("member2", 0), contains("member3", 1))));
+    }
+
+
+    @Test
+    @DisplayName("Accept가 없거나 */* 이거나 application/json 이면 기존 형식 그대로")
+    public void original_format() throws Exception {
+        mockMvc.perform(get("/all-members2"))
+                .andExpect(status().isOk())
+                .andExpect(content().json(ORIGINAL, true));
+        mockMvc.perform(get("/all-members2").accept(MediaType.ALL))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_JSON))
+                .andExpect(content().json(ORIGINAL, true));
+        mockMvc.perform(get("/all-members2").accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_JSON))
+                .andExpect(content().json(ORIGINAL, true));
+    }
+}
@@ -0,0 +1,223 @@
+package com.example.querydsl.search;
+
+import com.example.querydsl.entity.Member;
+import com.example.querydsl.tenant.TenantContext;
+import com.querydsl.jpa.impl.JPAQueryFactory;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.function.Supplier;
+
+import static com.example.querydsl.entity.QMember.member;
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 인덱스 채우기(warming)를 테스트가 원하는 시점에 돌리려고 TaskExecutor를 직접 넣는다
+ * 리스너가 커밋 후에 반영하는 것까지 보려면 진짜로 커밋해야 해서 @Transactional 대신 TransactionTemplate을 쓴다
+ * 이 테스트 전용 인메모리 H2를 쓴다
+ * */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:search;DB_CLOSE_DELAY=-1",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "querydsl.tenant.allowed=default,warm,order,bulk,evict-a,evict-b,evict-c",
+        "querydsl.search.max-tenant-indexes=2"
+})
+class MemberSearchServiceTest {
+
+    @Autowired
+    MemberSearchService searchService;
+
+    @Autowired
+    ManualTaskExecutor taskExecutor;
+
+    @Autowired
+    EntityManager em;
+
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    JPAQueryFactory queryFactory;
+
+    @Autowired
+    TransactionTemplate transactionTemplate;
+
+    @AfterEach
+    void tearDown() {
+        TenantContext.clear();
+    }
+
+
+    @Test
+    @DisplayName("채우는 중에는 DB로 응답하고, 그 사이 리스너로 들어온 변경도 인덱스에 남는다")
+    public void warming(){
+        Long alpha1 = inTenant("warm", () -> save(new Member("alpha1")));
+        Long alpha2 = inTenant("warm", () -> save(new Member("alpha2")));
+
+        // 첫 검색: 인덱스 채우기를 예약만 하고 DB에서 찾는다
+        assertThat(search("warm", "alp", true)).extracting(MemberSearchHit::memberId)
+                .containsExactly(alpha1, alpha2);
+        assertThat(searchService.hasIndex("warm")).isTrue();
+
+        // 채우기 전에 리스너로 들어오는 변경
+        Long alpha3 = inTenant("warm", () -> save(new Member("alpha3")));
+        inTenant("warm", () -> {
+            em.find(Member.class, alpha1).setUsername("beta1");
+            em.remove(em.find(Member.class, alpha2));
+            return null;
+        });
+
+        taskExecutor.runAll();
+
+        // 리스너를 거치지 않는 row -> 인덱스에는 없어야 한다 (인덱스로 응답했는지 확인용)
+        jdbcTemplate.update("insert into member (id, tenant_id, username, age, version) " +
+                "values (1000000, 'warm', 'alphaGhost', 0, 0)");
+
+        assertThat(search("warm", "alp", true)).extracting(MemberSearchHit::memberId)
+                .containsExactly(alpha3);
+        assertThat(search("warm", "eta", false)).extracting(MemberSearchHit::memberId)
+                .containsExactly(alpha1);
+
+        // 인덱스가 채워진 뒤의 변경도 바로 반영된다
+        inTenant("warm", () -> {
+            em.find(Member.class, alpha3).setUsername("gamma3");
+            return null;
+        });
+        assertThat(search("warm", "alp", true)).isEmpty();
+        assertThat(search("warm", "ga", false)).extracting(MemberSearchHit::username)
+                .containsExactly("gamma3");
+    }
+
+
+    @Test
+    @DisplayName("모르는 테넌트는 인덱스를 만들지 않고 DB로 응답한다")
+    public void unknown_tenant(){
+        Long stranger = inTenant("stranger", () -> save(new Member("stranger1")));
+
+        assertThat(search("stranger", "stranger", true)).extracting(MemberSearchHit::memberId)
+                .containsExactly(stranger);
+        assertThat(searchService.hasIndex("stranger")).isFalse();
+    }
+
+
+    @Test
+    @DisplayName("테넌트 인덱스 수가 넘치면 가장 오래 안 쓴 것부터 버린다")
+    public void eviction(){
+        search("evict-a", "x", true);
+        search("evict-b", "x", true);
+        search("evict-c", "x", true);
+
+        assertThat(searchService.hasIndex("evict-a")).isFalse();
+        assertThat(searchService.hasIndex("evict-b")).isTrue();
+        assertThat(searchService.hasIndex("evict-c")).isTrue();
+    }
+
+
+    @Test
+    @DisplayName("인덱스와 DB fallback이 같은 순서(memberId)로 돌려준다")
+    public void same_order(){
+        List<Long> ids = inTenant("order", () -> List.of(
+                save(new Member("order-c")),
+                save(new Member("order-a")),
+                save(new Member("order-b"))));
+
+        List<MemberSearchHit> fromDatabase = search("order", "order", true);
+        taskExecutor.runAll();
+        List<MemberSearchHit> fromIndex = search("order", "order", true);
+
+        assertThat(fromDatabase).extracting(MemberSearchHit::memberId).containsExactlyElementsOf(ids);
+        assertThat(fromIndex).isEqualTo(fromDatabase);
+    }
+
+
+    @Test
+    @DisplayName("벌크 delete는 리스너를 안 거치니까 invalidate해야 인덱스에서 빠진다")
+    public void bulk_delete_invalidate(){
+        Long bulk1 = inTenant("bulk", () -> save(new Member("bulk1")));
+        Long bulk2 = inTenant("bulk", () -> save(new Member("bulk2")));
+        search("bulk", "bulk", true);
+        taskExecutor.runAll();
+
+        inTenant("bulk", () -> queryFactory.delete(member).where(member.id.eq(bulk1)).execute());
+
+        // 리스너가 안 불렸으니 인덱스에는 아직 남아 있다
+        assertThat(search("bulk", "bulk", true)).extracting(MemberSearchHit::memberId)
+                .containsExactly(bulk1, bulk2);
+
+        inTenant("bulk", () -> {
+            queryFactory.delete(member).where(member.id.eq(bulk2)).execute();
+            searchService.invalidate("bulk");
+            // 커밋 전에는 버리지 않는다
+            assertThat(searchService.hasIndex("bulk")).isTrue();
+            return null;
+        });
+        assertThat(searchService.hasIndex("bulk")).isFalse();
+
+        assertThat(search("bulk", "bulk", true)).isEmpty();
+        taskExecutor.runAll();
+        assertThat(search("bulk", "bulk", true)).isEmpty();
+    }
+
+
+    private Long save(Member created) {
+        em.persist(created);
+        em.flush();
+        return created.getId();
+    }
+
+    private <T> T inTenant(String tenantId, Supplier<T> action) {
+        TenantContext.set(tenantId);
+        try {
+            return transactionTemplate.execute(status -> action.get());
+        } finally {
+            TenantContext.clear();
+        }
+    }
+
+    private List<MemberSearchHit> search(String tenantId, String query, boolean prefix) {
+        TenantContext.set(tenantId);
+        try {
+            return searchService.search(query, prefix, 10);
+        } finally {
+            TenantContext.clear();
+        }
+    }
+
+    static class ManualTaskExecutor implements TaskExecutor {
+
+        private final Queue<Runnable> tasks = new ConcurrentLinkedQueue<>();
+
+        @Override
+        public void execute(Runnable task) {
+            tasks.add(task);
+        }
+
+        void runAll() {
+            Runnable task;
+            while ((task = tasks.poll()) != null) {
+                task.run();
+            }
+        }
+    }
+
+    @TestConfiguration
+    static class ManualTaskExecutorConfig {
+
+        @Bean
+        ManualTaskExecutor searchTaskExecutor() {
+            return new ManualTaskExecutor();
+        }
+    }
+}
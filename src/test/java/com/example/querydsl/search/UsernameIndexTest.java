@@ -0,0 +1,128 @@
+package com.example.querydsl.search;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class UsernameIndexTest {
+
+    @Test
+    @DisplayName("접두사 검색")
+    public void prefix(){
+        UsernameIndex index = new UsernameIndex();
+        index.put(1L, "member1");
+        index.put(2L, "member2");
+        index.put(3L, "manager");
+
+        assertThat(index.prefix("mem", 10)).extracting(MemberSearchHit::username)
+                .containsExactly("member1", "member2");
+        assertThat(index.prefix("ma", 10)).extracting(MemberSearchHit::memberId)
+                .containsExactly(3L);
+        assertThat(index.prefix("x", 10)).isEmpty();
+    }
+
+
+    @Test
+    @DisplayName("부분 문자열 검색, 3글자보다 짧은 검색어도 된다")
+    public void substring(){
+        UsernameIndex index = new UsernameIndex();
+        index.put(1L, "member1");
+        index.put(2L, "remember");
+        index.put(3L, "manager");
+
+        assertThat(index.substring("embe", 10)).extracting(MemberSearchHit::username)
+                .containsExactly("member1", "remember");
+        assertThat(index.substring("er", 10)).extracting(MemberSearchHit::username)
+                .containsExactly("member1", "remember", "manager");
+        // trigram은 다 있지만 실제로는 이어져 있지 않은 경우
+        assertThat(index.substring("memage", 10)).isEmpty();
+        // DB like처럼 대소문자를 구분한다
+        assertThat(index.substring("MEM", 10)).isEmpty();
+    }
+
+
+    @Test
+    @DisplayName("이름 변경, 삭제")
+    public void update_remove(){
+        UsernameIndex index = new UsernameIndex();
+        index.put(1L, "member1");
+        index.put(2L, "member2");
+
+        index.put(1L, "renamed");
+        index.remove(2L);
+
+        assertThat(index.prefix("mem", 10)).isEmpty();
+        assertThat(index.substring("name", 10)).extracting(MemberSearchHit::memberId)
+                .containsExactly(1L);
+        assertThat(index.size()).isEqualTo(1);
+    }
+
+
+    @Test
+    @DisplayName("id가 뒤섞여 들어오거나 이름이 바뀌어도 memberId 순서로 돌려준다")
+    public void order(){
+        UsernameIndex index = new UsernameIndex();
+        index.put(30L, "member30");
+        index.put(10L, "member10");
+        index.put(20L, "other20");
+
+        index.put(20L, "member20");
+
+        assertThat(index.prefix("member", 10)).extracting(MemberSearchHit::memberId)
+                .containsExactly(10L, 20L, 30L);
+        assertThat(index.substring("m", 2)).extracting(MemberSearchHit::memberId)
+                .containsExactly(10L, 20L);
+    }
+
+
+    @Test
+    @DisplayName("putIfAbsent는 최신 값을 덮어쓰지 않는다")
+    public void putIfAbsent(){
+        UsernameIndex index = new UsernameIndex();
+        index.put(1L, "new-name");
+
+        index.putIfAbsent(1L, "old-name");
+
+        assertThat(index.prefix("old", 10)).isEmpty();
+        assertThat(index.prefix("new", 10)).hasSize(1);
+    }
+
+
+    @Test
+    @DisplayName("limit")
+    public void limit(){
+        UsernameIndex index = new UsernameIndex();
+        for (long i = 0; i < 100; i++) {
+            index.put(i, "member" + i);
+        }
+
+        assertThat(index.prefix("member", 5)).hasSize(5);
+        assertThat(index.substring("ember", 5)).hasSize(5);
+    }
+
+
+    /**
+     * 20만 명 기준 검색 한 번에 걸리는 시간
+     * */
+    @Test
+    @DisplayName("검색 시간 측정")
+    public void latency(){
+        UsernameIndex index = new UsernameIndex();
+        for (long i = 0; i < 200_000; i++) {
+            index.put(i, "member" + i);
+        }
+
+        int iterations = 1_000;
+        long start = System.nanoTime();
+        for (int i = 0; i < iterations; i++) {
+            index.prefix("member1999", 20);
+            index.substring("9999", 20);
+        }
+        long avgMicros = (System.nanoTime() - start) / iterations / 2 / 1_000;
+
+        System.out.println("avg search: " + avgMicros + "us");
+        assertThat(index.substring("199999", 20)).extracting(MemberSearchHit::memberId)
+                .containsExactly(199_999L);
+    }
+}
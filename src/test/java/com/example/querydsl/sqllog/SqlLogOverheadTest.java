@@ -0,0 +1,128 @@
+package com.example.querydsl.sqllog;
+
+import com.example.querydsl.QuerydslApplication;
+import com.example.querydsl.entity.Member;
+import com.example.querydsl.entity.Team;
+import com.p6spy.engine.spy.P6ModuleManager;
+import com.querydsl.jpa.impl.JPAQueryFactory;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.logging.LoggingSystem;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Properties;
+
+import static com.example.querydsl.entity.QMember.member;
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 같은 쿼리를 두 가지 설정으로 돌려서 로깅 비용을 비교한다
+ *
+ * 1. 예전 설정 (sql-trace 프로필): p6spy 기본 로거 + org.hibernate.SQL debug + org.hibernate.type trace
+ * 2. 지금 기본 설정: SampledSqlLogListener (1/100 샘플 + 느린 쿼리만, 비동기)
+ *
+ * 앱을 인메모리 H2로 두 번 띄운다 (로컬 H2 서버 필요 없음)
+ * 로그 레벨과 p6spy 설정은 JVM 전체에 걸리니까 샘플링 쪽을 먼저 돌리고, 레벨도 명시적으로 내려준다
+ * 끝나면 둘 다 원래대로 돌려놔서 같은 JVM에서 뒤에 도는 테스트에 sql-trace 설정이 남지 않게 한다
+ * */
+class SqlLogOverheadTest {
+
+    static final int MEMBERS = 100;
+    static final int STATEMENTS = 2_000;
+    static final String[] TRACE_LOGGERS = {"org.hibernate.SQL", "org.hibernate.type"};
+
+    @Test
+    @DisplayName("예전 로깅 설정 vs 샘플링 로깅 설정")
+    public void compare(){
+        Properties p6spyProperties = p6spySystemProperties();
+        long sampledNanos;
+        long traceNanos;
+        try {
+            sampledNanos = run("sampled",
+                    "--logging.level.org.hibernate.SQL=info",
+                    "--logging.level.org.hibernate.type=info");
+            traceNanos = run("trace",
+                    "--spring.profiles.active=sql-trace");
+        } finally {
+            restore(p6spyProperties);
+        }
+
+        System.out.println("sql-trace (p6spy logger + hibernate debug/trace): "
+                + (traceNanos / STATEMENTS / 1_000) + "us/statement");
+        System.out.println("sampled listener: "
+                + (sampledNanos / STATEMENTS / 1_000) + "us/statement");
+
+        assertThat(sampledNanos).isPositive();
+        assertThat(traceNanos).isPositive();
+    }
+
+    private long run(String name, String... args) {
+        String[] all = new String[args.length + 2];
+        all[0] = "--spring.datasource.url=jdbc:h2:mem:sqllog-" + name + ";DB_CLOSE_DELAY=-1";
+        all[1] = "--spring.jpa.hibernate.ddl-auto=create-drop";
+        System.arraycopy(args, 0, all, 2, args.length);
+
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(QuerydslApplication.class)
+                .web(WebApplicationType.NONE)
+                .run(all)) {
+            EntityManager em = context.getBean(EntityManager.class);
+            JPAQueryFactory queryFactory = context.getBean(JPAQueryFactory.class);
+            TransactionTemplate transactionTemplate = context.getBean(TransactionTemplate.class);
+
+            transactionTemplate.executeWithoutResult(status -> {
+                Team team = new Team("team");
+                em.persist(team);
+                for (int i = 0; i < MEMBERS; i++) {
+                    em.persist(new Member("member" + i, i, team));
+                }
+            });
+
+            // warm up
+            execute(queryFactory, transactionTemplate, em, STATEMENTS / 4);
+
+            long start = System.nanoTime();
+            execute(queryFactory, transactionTemplate, em, STATEMENTS);
+            return System.nanoTime() - start;
+        }
+    }
+
+    private Properties p6spySystemProperties() {
+        Properties snapshot = new Properties();
+        System.getProperties().stringPropertyNames().stream()
+                .filter(name -> name.startsWith("p6spy."))
+                .forEach(name -> snapshot.setProperty(name, System.getProperty(name)));
+        return snapshot;
+    }
+
+    private void restore(Properties p6spyProperties) {
+        LoggingSystem loggingSystem = LoggingSystem.get(getClass().getClassLoader());
+        for (String logger : TRACE_LOGGERS) {
+            // null -> 부모 로거 레벨을 따라간다
+            loggingSystem.setLogLevel(logger, null);
+        }
+
+        System.getProperties().stringPropertyNames().stream()
+                .filter(name -> name.startsWith("p6spy."))
+                .forEach(System::clearProperty);
+        p6spyProperties.stringPropertyNames()
+                .forEach(name -> System.setProperty(name, p6spyProperties.getProperty(name)));
+        P6ModuleManager.getInstance().reload();
+    }
+
+    private void execute(JPAQueryFactory queryFactory, TransactionTemplate transactionTemplate,
+                         EntityManager em, int statements) {
+        transactionTemplate.executeWithoutResult(status -> {
+            for (int i = 0; i < statements; i++) {
+                queryFactory
+                        .selectFrom(member)
+                        .where(member.username.eq("member" + (i % MEMBERS)))
+                        .fetchOne();
+                em.clear();
+            }
+        });
+    }
+}
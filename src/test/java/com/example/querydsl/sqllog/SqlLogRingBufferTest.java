@@ -0,0 +1,111 @@
+package com.example.querydsl.sqllog;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SqlLogRingBufferTest {
+
+    @Test
+    @DisplayName("넣은 순서대로 꺼내진다")
+    public void fifo(){
+        SqlLogRingBuffer<Integer> buffer = new SqlLogRingBuffer<>(4);
+
+        buffer.offer(1);
+        buffer.offer(2);
+        buffer.offer(3);
+
+        assertThat(buffer.poll()).isEqualTo(1);
+        assertThat(buffer.poll()).isEqualTo(2);
+        assertThat(buffer.poll()).isEqualTo(3);
+        assertThat(buffer.poll()).isNull();
+    }
+
+
+    @Test
+    @DisplayName("가득 차면 기다리지 않고 버린다")
+    public void drop_when_full(){
+        SqlLogRingBuffer<Integer> buffer = new SqlLogRingBuffer<>(3);
+
+        // 크기는 2의 제곱으로 올림된다
+        assertThat(buffer.capacity()).isEqualTo(4);
+
+        for (int i = 0; i < 6; i++) {
+            buffer.offer(i);
+        }
+
+        assertThat(buffer.droppedCount()).isEqualTo(2);
+        assertThat(buffer.poll()).isEqualTo(0);
+        assertThat(buffer.offer(100)).isTrue();
+    }
+
+
+    /**
+     * 여러 스레드가 동시에 넣어도 받은 건 하나도 잃어버리지 않아야 한다
+     * 버려진 건 droppedCount로 전부 셀 수 있어야 함
+     * */
+    @Test
+    @DisplayName("multi-producer")
+    public void multi_producer() throws Exception {
+        int producers = 4;
+        int perProducer = 50_000;
+        SqlLogRingBuffer<Integer> buffer = new SqlLogRingBuffer<>(1024);
+
+        ExecutorService executor = Executors.newFixedThreadPool(producers);
+        CountDownLatch done = new CountDownLatch(producers);
+        for (int p = 0; p < producers; p++) {
+            int base = p * perProducer;
+            executor.submit(() -> {
+                for (int i = 0; i < perProducer; i++) {
+                    buffer.offer(base + i);
+                }
+                done.countDown();
+            });
+        }
+
+        Set<Integer> received = new HashSet<>();
+        while (done.getCount() > 0) {
+            Integer value = buffer.poll();
+            if (value != null) {
+                received.add(value);
+            }
+        }
+        Integer value;
+        while ((value = buffer.poll()) != null) {
+            received.add(value);
+        }
+        executor.shutdown();
+
+        assertThat(received.size() + buffer.droppedCount())
+                .isEqualTo((long) producers * perProducer);
+    }
+
+
+    /**
+     * 요청 스레드 입장에서 로그 한 건에 드는 비용
+     * 기존 설정(p6spy 기본 로거 + org.hibernate.SQL debug)은 statement마다 포맷팅 + appender 동기 쓰기를 함
+     * */
+    @Test
+    @DisplayName("offer 비용 측정")
+    public void offer_overhead(){
+        SqlLogRingBuffer<SqlLogEntry> buffer = new SqlLogRingBuffer<>(1 << 16);
+        SqlLogEntry entry = new SqlLogEntry("select 1", 1_000, false, null);
+        int iterations = 1 << 16;
+
+        long start = System.nanoTime();
+        for (int i = 0; i < iterations; i++) {
+            buffer.offer(entry);
+        }
+        long elapsed = System.nanoTime() - start;
+
+        System.out.println("offer: " + (elapsed / iterations) + "ns/op");
+        assertThat(buffer.droppedCount()).isZero();
+    }
+}
@@ -0,0 +1,214 @@
+package com.example.querydsl.subquery;
+
+import com.example.querydsl.entity.Member;
+import com.example.querydsl.entity.QMember;
+import com.example.querydsl.entity.Team;
+import com.querydsl.jpa.impl.JPAQueryFactory;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+import java.util.function.Supplier;
+
+import static com.example.querydsl.entity.QMember.member;
+import static com.querydsl.jpa.JPAExpressions.select;
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 서브쿼리 버전(QuerydslBasicTest)과 MemberSubQueryRewriter 버전의 결과가 같은지 확인
+ * */
+@SpringBootTest
+@Transactional
+class MemberSubQueryRewriterTest {
+
+    @Autowired
+    EntityManager em;
+
+    JPAQueryFactory queryFactory;
+
+    @Autowired
+    MemberSubQueryRewriter rewriter;
+
+    @BeforeEach
+    void setUp() {
+        queryFactory = new JPAQueryFactory(em);
+
+        Team teamA = new Team("teamA");
+        Team teamB = new Team("teamB");
+        em.persist(teamA);
+        em.persist(teamB);
+
+        em.persist(new Member("member1", 10, teamA));
+        em.persist(new Member("member2", 20, teamA));
+        em.persist(new Member("member3", 30, teamB));
+        em.persist(new Member("member4", 40, teamB));
+        // 같은 나이가 여러 명이어도 in -> exists 변환에서 중복이 생기면 안 된다
+        em.persist(new Member("member5", 40, teamB));
+    }
+
+
+    @Test
+    @DisplayName("max 비교")
+    public void max(){
+        QMember memberSub = new QMember("memberSub");
+
+        List<Member> expected = queryFactory
+                .selectFrom(member)
+                .where(member.age.eq(
+                        select(memberSub.age.max())
+                                .from(memberSub)
+                ))
+                .fetch();
+
+        assertThat(rewriter.findWithMaxAge())
+                .containsExactlyInAnyOrderElementsOf(expected);
+    }
+
+
+    @Test
+    @DisplayName("avg 비교")
+    public void avg(){
+        QMember memberSub = new QMember("memberSub");
+
+        List<Member> expected = queryFactory
+                .selectFrom(member)
+                .where(member.age.goe(
+                        select(memberSub.age.avg())
+                                .from(memberSub)
+                ))
+                .fetch();
+
+        assertThat(rewriter.findWithAgeGoeAvg())
+                .containsExactlyInAnyOrderElementsOf(expected);
+    }
+
+
+    @Test
+    @DisplayName("in 서브쿼리")
+    public void in(){
+        QMember memberSub = new QMember("memberSub");
+
+        List<Member> expected = queryFactory
+                .selectFrom(member)
+                .where(member.age.in(
+                        select(memberSub.age)
+                                .from(memberSub)
+                                .where(memberSub.age.gt(10))
+                ))
+                .fetch();
+
+        assertThat(rewriter.findWithAgeIn(sub -> sub.age.gt(10)))
+                .containsExactlyInAnyOrderElementsOf(expected);
+    }
+
+
+    @Test
+    @DisplayName("select 절 서브쿼리")
+    public void select_subQuery(){
+        QMember memberSub = new QMember("memberSub");
+
+        List<MemberAvgAgeDto> expected = queryFactory
+                .select(member.username,
+                        select(memberSub.age.avg())
+                                .from(memberSub))
+                .from(member)
+                .fetch()
+                .stream()
+                .map(tuple -> new MemberAvgAgeDto(
+                        tuple.get(member.username),
+                        tuple.get(1, Double.class)))
+                .toList();
+
+        assertThat(rewriter.findUsernamesWithAvgAge())
+                .containsExactlyInAnyOrderElementsOf(expected);
+    }
+
+
+    /**
+     * 데이터를 늘려서 서브쿼리 버전과 변환 버전의 시간을 비교해본다
+     * DB나 인덱스 상태에 따라 숫자가 달라지니 배율을 출력하고,
+     * 결과 row 수가 같은지, 변환 버전이 원래 쿼리보다 크게 느려지지만 않는지(3배 + 5ms 이내) 확인한다
+     *
+     * 로컬 H2 (5,000명, 10회 평균) 측정 예: max 1.18x, avg 1.20x, in 0.95x, select 3.39x (subquery/derived)
+     * -> select 절 스칼라 서브쿼리만 확실히 빨라지고, 나머지는 uncorrelated라 비슷하다
+     * */
+    @Test
+    @DisplayName("서브쿼리 vs 변환 버전 벤치마크")
+    public void benchmark(){
+        Team team = new Team("benchTeam");
+        em.persist(team);
+        for (int i = 0; i < 5_000; i++) {
+            em.persist(new Member("bench" + i, i % 100, team));
+        }
+        em.flush();
+        em.clear();
+
+        QMember memberSub = new QMember("memberSub");
+
+        compare("max",
+                () -> queryFactory
+                        .selectFrom(member)
+                        .where(member.age.eq(select(memberSub.age.max()).from(memberSub)))
+                        .fetch(),
+                () -> rewriter.findWithMaxAge());
+
+        compare("avg",
+                () -> queryFactory
+                        .selectFrom(member)
+                        .where(member.age.goe(select(memberSub.age.avg()).from(memberSub)))
+                        .fetch(),
+                () -> rewriter.findWithAgeGoeAvg());
+
+        compare("in",
+                () -> queryFactory
+                        .selectFrom(member)
+                        .where(member.age.in(select(memberSub.age).from(memberSub).where(memberSub.age.gt(90))))
+                        .fetch(),
+                () -> rewriter.findWithAgeIn(sub -> sub.age.gt(90)));
+
+        compare("select",
+                () -> queryFactory
+                        .select(member.username, select(memberSub.age.avg()).from(memberSub))
+                        .from(member)
+                        .fetch(),
+                () -> rewriter.findUsernamesWithAvgAge());
+    }
+
+    private void compare(String name, Supplier<List<?>> subQuery, Supplier<List<?>> derived) {
+        Timing original = measure(name + " - subquery", subQuery);
+        Timing rewritten = measure(name + " - derived", derived);
+
+        System.out.printf("%s: subquery/derived = %.2fx%n",
+                name, (double) original.micros() / Math.max(1, rewritten.micros()));
+        assertThat(rewritten.rows()).isEqualTo(original.rows());
+        assertThat(rewritten.micros()).isLessThanOrEqualTo(original.micros() * 3 + 5_000);
+    }
+
+    private Timing measure(String name, Supplier<List<?>> query) {
+        // warm up
+        for (int i = 0; i < 3; i++) {
+            query.get();
+            em.clear();
+        }
+
+        int iterations = 10;
+        long start = System.nanoTime();
+        int size = 0;
+        for (int i = 0; i < iterations; i++) {
+            size = query.get().size();
+            em.clear();
+        }
+        long avgMicros = (System.nanoTime() - start) / iterations / 1_000;
+
+        System.out.println(name + ": " + avgMicros + "us (rows=" + size + ")");
+        return new Timing(avgMicros, size);
+    }
+
+    private record Timing(long micros, int rows) {
+    }
+}
@@ -0,0 +1,67 @@
+package com.example.querydsl.tenant;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:tenant;DB_CLOSE_DELAY=-1",
+        "spring.jpa.hibernate.ddl-auto=create-drop"
+})
+@AutoConfigureMockMvc
+class TenantFilterTest {
+
+    @Autowired
+    MockMvc mockMvc;
+
+    @Test
+    @DisplayName("헤더가 없으면 기본 테넌트로 처리해서 기존 클라이언트가 그대로 동작한다")
+    public void missing_tenant() throws Exception {
+        mockMvc.perform(get("/all-members2"))
+                .andExpect(status().isOk());
+        mockMvc.perform(get("/hello"))
+                .andExpect(status().isOk());
+    }
+
+
+    @Test
+    @DisplayName("require-header를 켜면 헤더 없는 요청은 400")
+    public void missing_tenant_required() throws Exception {
+        TenantFilter filter = new TenantFilter(new TenantProperties(Set.of(TenantContext.DEFAULT_TENANT), true));
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        MockFilterChain chain = new MockFilterChain();
+
+        filter.doFilter(new MockHttpServletRequest("GET", "/all-members2"), response, chain);
+
+        assertThat(response.getStatus()).isEqualTo(400);
+        assertThat(chain.getRequest()).isNull();
+    }
+
+
+    @Test
+    @DisplayName("허용 목록에 없는 테넌트는 403")
+    public void unknown_tenant() throws Exception {
+        mockMvc.perform(get("/all-members2").header(TenantFilter.TENANT_HEADER, "someone-else"))
+                .andExpect(status().isForbidden());
+    }
+
+
+    @Test
+    @DisplayName("허용된 테넌트는 통과")
+    public void known_tenant() throws Exception {
+        mockMvc.perform(get("/all-members2").header(TenantFilter.TENANT_HEADER, TenantContext.DEFAULT_TENANT))
+                .andExpect(status().isOk());
+    }
+}
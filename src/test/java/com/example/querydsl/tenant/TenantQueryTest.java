@@ -0,0 +1,196 @@
+package com.example.querydsl.tenant;
+
+import com.example.querydsl.entity.Member;
+import com.example.querydsl.entity.Team;
+import com.p6spy.engine.common.StatementInformation;
+import com.p6spy.engine.event.SimpleJdbcEventListener;
+import com.querydsl.jpa.impl.JPAQueryFactory;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.SQLException;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Supplier;
+
+import static com.example.querydsl.entity.QMember.member;
+import static com.example.querydsl.entity.QTeam.team;
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 테넌트마다 트랜잭션(=세션)을 새로 열어야 해서 @Transactional 대신 TransactionTemplate을 쓴다
+ * 데이터를 많이 넣으니까 공용 DB가 아니라 이 테스트 전용 인메모리 H2를 쓴다
+ * */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:tenant;DB_CLOSE_DELAY=-1",
+        "spring.jpa.hibernate.ddl-auto=create-drop"
+})
+class TenantQueryTest {
+
+    @Autowired
+    EntityManager em;
+
+    @Autowired
+    JPAQueryFactory queryFactory;
+
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    TransactionTemplate transactionTemplate;
+
+    @Autowired
+    SqlCapture sqlCapture;
+
+    final String prefix = "t-" + UUID.randomUUID().toString().substring(0, 8) + "-";
+
+
+    @Test
+    @DisplayName("다른 테넌트의 데이터는 조회되지 않는다")
+    public void isolation(){
+        seed(prefix + "A", 3);
+        seed(prefix + "B", 5);
+
+        Long countA = inTenant(prefix + "A", () -> queryFactory
+                .select(member.count())
+                .from(member)
+                .fetchOne());
+
+        List<String> teamNamesOfB = inTenant(prefix + "B", () -> queryFactory
+                .select(team.name)
+                .from(member)
+                .join(member.team, team)
+                .distinct()
+                .fetch());
+
+        assertThat(countA).isEqualTo(3);
+        assertThat(teamNamesOfB).containsExactly(prefix + "B-team");
+    }
+
+
+    /**
+     * 모든 테넌트에 공통으로 있는 값(age_bucket)으로 거르는 쿼리
+     * -> tenant_id로 시작하는 인덱스가 없으면 테이블 전체를 훑어야 한다
+     * 손으로 쓴 SQL이 아니라 Hibernate가 실제로 만든 SQL(테넌트 조건 포함, 값 바인딩된 상태)을 EXPLAIN 한다
+     * */
+    @Test
+    @DisplayName("테넌트 조건이 붙은 쿼리는 tenant_id로 시작하는 인덱스를 탄다")
+    public void plan_uses_tenant_index(){
+        String tenantId = prefix + "plan";
+        seed(tenantId, 10);
+
+        sqlCapture.statements.clear();
+        queryTenant(tenantId);
+        String sql = sqlCapture.statements.stream()
+                .filter(statement -> statement.contains("age_bucket"))
+                .findFirst()
+                .orElseThrow();
+
+        String plan = jdbcTemplate.queryForObject("explain " + sql, String.class);
+
+        assertThat(sql).containsIgnoringCase("tenant_id");
+        assertThat(plan).containsIgnoringCase("idx_member_tenant_age_bucket");
+    }
+
+
+    /**
+     * 대상 테넌트 데이터는 그대로 두고 다른 테넌트 데이터만 20배로 늘린다
+     * 인덱스를 타면 대상 테넌트 조회 시간은 거의 그대로, 전체를 훑으면 데이터에 비례해서 늘어난다
+     * */
+    @Test
+    @DisplayName("전체 데이터가 늘어나도 테넌트별 조회 시간은 그대로")
+    public void latency_flat_as_data_grows(){
+        String target = prefix + "target";
+        seed(target, 1_000);
+
+        insertOtherTenants(1, 10_000);
+        long before = measure(target);
+
+        insertOtherTenants(10_001, 200_000);
+        long after = measure(target);
+
+        System.out.println("10k rows: " + before + "us, 200k rows: " + after + "us");
+        assertThat(after).isLessThan(Math.max(before * 3, before + 2_000));
+    }
+
+    private long measure(String tenantId) {
+        // warm up
+        for (int i = 0; i < 20; i++) {
+            queryTenant(tenantId);
+        }
+
+        int iterations = 100;
+        long start = System.nanoTime();
+        for (int i = 0; i < iterations; i++) {
+            assertThat(queryTenant(tenantId)).hasSize(100);
+        }
+        return (System.nanoTime() - start) / iterations / 1_000;
+    }
+
+    private List<Member> queryTenant(String tenantId) {
+        return inTenant(tenantId, () -> queryFactory
+                .selectFrom(member)
+                .where(member.ageBucket.eq(20))
+                .fetch());
+    }
+
+    /**
+     * JPA로 20만 건을 넣으면 너무 오래 걸려서 SQL로 한 번에 넣는다
+     * id는 시퀀스와 겹치지 않게 음수를 쓴다
+     * */
+    private void insertOtherTenants(int from, int to) {
+        jdbcTemplate.update("insert into member (id, tenant_id, username, age, version) " +
+                "select -x, '" + prefix + "other-' || mod(x, 200), 'other' || x, mod(x, 100), 0 " +
+                "from system_range(?, ?)", from, to);
+    }
+
+    private void seed(String tenantId, int members) {
+        inTenant(tenantId, () -> {
+            Team team = new Team(tenantId + "-team");
+            em.persist(team);
+            for (int i = 0; i < members; i++) {
+                em.persist(new Member(tenantId + "-member" + i, i % 100, team));
+            }
+            return null;
+        });
+    }
+
+    private <T> T inTenant(String tenantId, Supplier<T> work) {
+        TenantContext.set(tenantId);
+        try {
+            return transactionTemplate.execute(status -> work.get());
+        } finally {
+            TenantContext.clear();
+        }
+    }
+
+    /**
+     * p6spy를 거치는 SQL을 바인딩 값이 들어간 상태로 모아둔다 (JdbcEventListener 빈은 자동으로 등록된다)
+     * */
+    static class SqlCapture extends SimpleJdbcEventListener {
+
+        final List<String> statements = new CopyOnWriteArrayList<>();
+
+        @Override
+        public void onAfterAnyExecute(StatementInformation statementInformation, long timeElapsedNanos, SQLException e) {
+            statements.add(statementInformation.getSqlWithValues());
+        }
+    }
+
+    @TestConfiguration
+    static class SqlCaptureConfig {
+
+        @Bean
+        SqlCapture sqlCapture() {
+            return new SqlCapture();
+        }
+    }
+}